@@ -4,6 +4,7 @@ import lombok.Getter;
 import lombok.Singular;
 import lombok.SneakyThrows;
 import org.comroid.api.attr.Named;
+import org.comroid.api.func.util.BlockPipeline;
 import org.comroid.api.func.util.DelegateStream;
 import org.comroid.api.func.util.OnDemand;
 import org.comroid.api.info.Log;
@@ -14,7 +15,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -23,6 +27,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.stream.Stream;
 
@@ -129,9 +136,41 @@ public enum Archiver implements Named {
                 throw new RuntimeException("Could not detect suitable variant");
             }
         }
+    },
+    /**
+     * Writes {@code .tar.gz} archives in the JVM, without external tools.
+     * The directory tree is walked in parallel and compressed in parallel gzip blocks.
+     */
+    Java(".tar.gz", true) {
+        @Override
+        public boolean available() {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<File> execute(
+                Object outputPath,
+                Object inputDirectory,
+                List<Object> excludePatterns,
+                @Nullable Consumer<Progress> progress
+        ) {
+            var output = Path.of(outputPath + fileExtension);
+            var writer = new TarWriter(Path.of(String.valueOf(inputDirectory)),
+                    excludePatterns.stream().map(String::valueOf),
+                    progress);
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    writer.write(output, BlockPipeline.builder().build());
+                    return output.toFile();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, Worker);
+        }
     };
 
     public static final Comparator<Archiver> ReadOnly = Comparator.comparingInt(a -> a.readOnly ? 0 : 1);
+    private static final Executor             Worker   = Executors.newVirtualThreadPerTaskExecutor();
 
     public static Archiver find() {
         return find(Comparator.naturalOrder());
@@ -155,6 +194,12 @@ public enum Archiver implements Named {
         else this.execPath.complete(result.get());
     }
 
+    Archiver(String fileExtension, boolean readOnly) {
+        this.fileExtension = fileExtension;
+        this.readOnly = readOnly;
+        this.execPath.completeExceptionally(new UnsupportedOperationException(name() + " runs without an executable"));
+    }
+
     public boolean available() {
         return execPath.isDone() && !execPath.isCompletedExceptionally();
     }
@@ -164,6 +209,18 @@ public enum Archiver implements Named {
             Object outputPath, // without extension
             Object inputDirectory,
             @Singular List<Object> excludePatterns
+    ) {
+        return execute(outputPath, inputDirectory, excludePatterns, null);
+    }
+
+    /**
+     * @param progress receives the progress after every archived file; external tools do not report progress
+     */
+    public CompletableFuture<File> execute(
+            Object outputPath, // without extension
+            Object inputDirectory,
+            List<Object> excludePatterns,
+            @Nullable Consumer<Progress> progress
     ) {
         return execPath.thenComposeAsync(exec -> doZip(
                 exec, outputPath.toString() + fileExtension,
@@ -191,4 +248,13 @@ public enum Archiver implements Named {
     protected Collection<String> generateCmd(File execPath, String outputPath, String inputDirectory, Stream<String> excludePaths) {
         throw new AbstractMethodError();
     }
+
+    /**
+     * @param current the file that was archived last
+     */
+    public record Progress(long files, long totalFiles, long bytes, long totalBytes, Path current) {
+        public double ratio() {
+            return totalBytes == 0 ? (double) files / Math.max(1, totalFiles) : (double) bytes / totalBytes;
+        }
+    }
 }
@@ -0,0 +1,257 @@
+package org.comroid.api.comp;
+
+import org.comroid.api.func.util.BlockPipeline;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Writes a directory tree as a gzip compressed ustar archive, with pax headers for long names and large files.
+ * The tree is walked in parallel and the archive is compressed in parallel blocks by a {@link BlockPipeline}.
+ */
+final class TarWriter {
+    private static final int  BlockSize     = 512;
+    private static final long MaxOctalSize  = 077777777777L;
+    private static final int  MaxNameLength = 100;
+
+    private final Path                                  root;
+    private final List<PathMatcher>                     excludes;
+    private final @Nullable Consumer<Archiver.Progress> progress;
+    private final byte[]                                header = new byte[BlockSize];
+    private final byte[]                                buffer = new byte[64 << 10];
+
+    TarWriter(Path root, Stream<String> excludePatterns, @Nullable Consumer<Archiver.Progress> progress) {
+        this.root     = root.toAbsolutePath().normalize();
+        this.excludes = excludePatterns.map(TarWriter::compile).toList();
+        this.progress = progress;
+    }
+
+    void write(Path output, BlockPipeline pipeline) throws IOException {
+        var entries = new Walk(root).invoke();
+        var total   = entries.stream().mapToLong(Entry::size).sum();
+
+        try (var out = pipeline.encoder(new BufferedOutputStream(Files.newOutputStream(output), 64 << 10))) {
+            long bytes = 0, files = 0;
+            for (var entry : entries) {
+                writeEntry(out, entry);
+                bytes += entry.size();
+                if (progress != null)
+                    progress.accept(new Archiver.Progress(++files, entries.size(), bytes, total, entry.path()));
+            }
+            // end of archive
+            out.write(new byte[2 * BlockSize]);
+        }
+    }
+
+    private void writeEntry(OutputStream out, Entry entry) throws IOException {
+        var name = entry.name();
+        var link = entry.link() == null ? "" : entry.link();
+        var pax  = new StringBuilder();
+        if (utf8(name).length > MaxNameLength) pax.append(paxRecord("path", name));
+        if (utf8(link).length > MaxNameLength) pax.append(paxRecord("linkpath", link));
+        if (entry.size() > MaxOctalSize) pax.append(paxRecord("size", String.valueOf(entry.size())));
+        if (!pax.isEmpty()) {
+            var records = utf8(pax.toString());
+            writeHeader(out, "PaxHeaders/" + truncate(name), "", 0644, records.length, 0, 'x');
+            out.write(records);
+            pad(out, records.length);
+        }
+
+        writeHeader(out, truncate(name), truncate(link), entry.mode(), Math.min(entry.size(), MaxOctalSize),
+                entry.attributes().lastModifiedTime().toMillis() / 1000, entry.type());
+        if (entry.size() > 0) {
+            copy(out, entry.path(), entry.size());
+            pad(out, entry.size());
+        }
+    }
+
+    private void writeHeader(OutputStream out, String name, String link, int mode, long size, long mtime, char type)
+    throws IOException {
+        Arrays.fill(header, (byte) 0);
+        put(name, 0, 100);
+        octal(mode, 100, 8);
+        octal(0, 108, 8);
+        octal(0, 116, 8);
+        octal(size, 124, 12);
+        octal(mtime, 136, 12);
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        header[156] = (byte) type;
+        put(link, 157, 100);
+        put("ustar", 257, 6);
+        put("00", 263, 2);
+
+        var checksum = 0;
+        for (var b : header)
+            checksum += b & 0xFF;
+        octal(checksum, 148, 7);
+        header[154] = 0;
+        out.write(header);
+    }
+
+    /**
+     * Copies exactly {@code size} bytes; a file that changed while it was archived is cut off or padded with zeros.
+     */
+    private void copy(OutputStream out, Path path, long size) throws IOException {
+        var remaining = size;
+        try (var in = Files.newInputStream(path)) {
+            int n;
+            while (remaining > 0 && (n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) != -1) {
+                out.write(buffer, 0, n);
+                remaining -= n;
+            }
+        }
+        Arrays.fill(buffer, (byte) 0);
+        while (remaining > 0) {
+            var n = (int) Math.min(buffer.length, remaining);
+            out.write(buffer, 0, n);
+            remaining -= n;
+        }
+    }
+
+    private void put(String text, int offset, int length) {
+        var bytes = utf8(text);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    private void octal(long value, int offset, int length) {
+        var digits = Long.toOctalString(value);
+        put("0".repeat(Math.max(0, length - 1 - digits.length())) + digits, offset, length - 1);
+    }
+
+    private boolean excluded(Path path) {
+        var relative = root.relativize(path);
+        for (var matcher : excludes)
+            if (matcher.matches(relative) || matcher.matches(path.getFileName()))
+                return true;
+        return false;
+    }
+
+    private String name(Path path, boolean directory) {
+        var base     = root.getFileName() == null ? "" : root.getFileName() + "/";
+        var relative = root.relativize(path).toString().replace('\\', '/');
+        var name     = relative.isEmpty() ? base : base + relative;
+        return directory && !name.endsWith("/") ? name + '/' : name;
+    }
+
+    private static void pad(OutputStream out, long size) throws IOException {
+        var padding = (int) (-size & BlockSize - 1);
+        if (padding > 0) out.write(new byte[padding]);
+    }
+
+    private static String paxRecord(String key, String value) {
+        // the length prefix counts itself
+        var content = ' ' + key + '=' + value + '\n';
+        var length  = utf8(content).length;
+        var total   = length + String.valueOf(length).length();
+        if (String.valueOf(total).length() != String.valueOf(length).length()) total++;
+        return total + content;
+    }
+
+    private static String truncate(String name) {
+        var bytes = utf8(name);
+        return bytes.length <= MaxNameLength ? name : new String(bytes, 0, MaxNameLength, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static PathMatcher compile(String pattern) {
+        // like tar, a trailing slash only marks a directory
+        var glob = pattern.replaceAll("[/\\\\]+$", "");
+        return FileSystems.getDefault().getPathMatcher("glob:" + glob);
+    }
+
+    private record Entry(Path path, String name, BasicFileAttributes attributes, @Nullable String link) {
+        long size() {
+            return attributes.isRegularFile() ? attributes.size() : 0;
+        }
+
+        char type() {
+            if (attributes.isDirectory()) return '5';
+            if (attributes.isSymbolicLink()) return '2';
+            return '0';
+        }
+
+        int mode() {
+            if (attributes instanceof PosixFileAttributes posix) {
+                var mode = 0;
+                for (var permission : posix.permissions())
+                    mode |= 0400 >> permission.ordinal();
+                return mode;
+            }
+            return attributes.isDirectory() ? 0755 : 0644;
+        }
+    }
+
+    /**
+     * Lists a directory and forks a task per subdirectory; entries keep the order of a sequential walk.
+     */
+    private final class Walk extends RecursiveTask<List<Entry>> {
+        private final Path directory;
+
+        private Walk(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected List<Entry> compute() {
+            try {
+                var entries = new ArrayList<Entry>();
+                if (directory.equals(root)) entries.add(entry(root));
+
+                List<Path> children;
+                try (var list = Files.list(directory)) {
+                    children = list.filter(path -> !excluded(path)).sorted(Comparator.comparing(Path::toString)).toList();
+                }
+                var parts = new ArrayList<Object>();
+                var tasks = new ArrayList<Walk>();
+                for (var child : children) {
+                    var entry = entry(child);
+                    parts.add(entry);
+                    if (entry.attributes().isDirectory()) {
+                        var task = new Walk(child);
+                        tasks.add(task);
+                        parts.add(task);
+                    }
+                }
+                invokeAll(tasks);
+                for (var part : parts)
+                    if (part instanceof Entry entry) entries.add(entry);
+                    else entries.addAll(((Walk) part).join());
+                return entries;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private Entry entry(Path path) throws IOException {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            } catch (UnsupportedOperationException e) {
+                attributes = Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            }
+            var link = attributes.isSymbolicLink() ? Files.readSymbolicLink(path).toString() : null;
+            return new Entry(path, name(path, attributes.isDirectory()), attributes, link);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.comroid.api.config;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.SneakyThrows;
 import lombok.Value;
 import lombok.experimental.NonFinal;
@@ -41,29 +43,44 @@ import org.comroid.api.func.exc.ThrowingSupplier;
 import org.comroid.api.func.ext.Context;
 import org.comroid.api.func.ext.Wrap;
 import org.comroid.api.func.util.Debug;
+import org.comroid.api.func.util.Event;
 import org.comroid.api.func.util.Pair;
+import org.comroid.api.info.Log;
 import org.comroid.api.io.FileHandle;
 import org.comroid.api.java.Activator;
 import org.comroid.api.java.JITAssistant;
 import org.comroid.api.text.Capitalization;
 import org.comroid.api.tree.UncheckedCloseable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -78,7 +95,12 @@ public class ConfigurationManager<T extends DataNode> {
     File             file;
     MimeType         dataType;
     T                config;
+    /**
+     * Publishes a {@link Change} for every property whose value changed during a reload, keyed by its path.
+     */
+    Event.Bus<Change> changes = new Event.Bus<>("ConfigurationManager changes");
     @NonFinal Instant timestamp = Instant.EPOCH;
+    @NonFinal @Nullable @Getter(AccessLevel.NONE) DataNode data;
 
     public ConfigurationManager(Context context, Class<T> type, String filePath) {
         this(context, type, filePath, MimeType.JSON);
@@ -105,28 +127,92 @@ public class ConfigurationManager<T extends DataNode> {
         reload(false);
     }
 
-    @SneakyThrows
-    public void reload(boolean force) {
+    /**
+     * Reads the file and applies every property whose data differs from the previous reload.
+     * A forced reload applies every property, resetting values that were changed in memory.
+     *
+     * @param force whether to reload every property, even if the file was not modified since the last reload
+     */
+    public synchronized void reload(boolean force) {
         if (!force && ftime().isBefore(timestamp)) return; // reload is not necessary
+        load(!force);
+    }
 
+    /**
+     * @param diff whether to only apply properties whose data differs from the previous reload
+     */
+    @SneakyThrows
+    private synchronized void load(boolean diff) {
         DataNode node;
-        try (
-                var fis = new FileInputStream(file); var isr = new InputStreamReader(fis);
-                var br = new BufferedReader(isr)
-        ) {
-            var data = br.lines().collect(Collectors.joining());
-            node = Objects.requireNonNull(dataType.getDeserializer(), "No deserializer set for " + dataType)
-                    .apply(data);
+        try (var in = new BufferedInputStream(new FileInputStream(file))) {
+            node = Objects.requireNonNull(dataType.getDeserializer(), "No deserializer set for " + dataType).parse(in);
         }
         Objects.requireNonNull(node, "No data");
 
-        setSelfAndChildrenRecursive(struct, config, node);
+        var changed = new ArrayList<Change>();
+        setSelfAndChildrenRecursive(struct, config, node, diff ? data : null, "", changed);
+        this.data      = node;
         this.timestamp = Instant.now();
+        changed.forEach(change -> changes.publish(change.path(), change));
+    }
+
+    /**
+     * Reloads whenever the file changes, once it was left unchanged for the debounce duration.
+     *
+     * @return a handle to stop watching
+     */
+    public UncheckedCloseable watch(Duration debounce) throws IOException {
+        var dir     = file.getAbsoluteFile().getParentFile().toPath();
+        var name    = file.getName();
+        var service = dir.getFileSystem().newWatchService();
+        dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        var scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+        var pending   = new AtomicReference<ScheduledFuture<?>>();
+        var watcher = Thread.ofVirtual().name("watch " + file).start(() -> {
+            try {
+                WatchKey key;
+                do {
+                    key = service.take();
+                    var touched = key.pollEvents()
+                            .stream()
+                            .anyMatch(event -> event.context() instanceof Path path && name.equals(path.toString()));
+                    if (!touched) continue;
+                    // editors often write a file in several steps; only reload once they are done
+                    var previous = pending.getAndSet(scheduler.schedule(() -> {
+                        try {
+                            // the file time may be too coarse to tell the change apart from the last reload
+                            load(true);
+                        } catch (Throwable t) {
+                            Log.at(Level.WARNING, "Could not reload " + file, t);
+                        }
+                    }, debounce.toNanos(), TimeUnit.NANOSECONDS));
+                    if (previous != null) previous.cancel(false);
+                } while (key.reset());
+            } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            }
+        });
+        return () -> {
+            watcher.interrupt();
+            scheduler.shutdownNow();
+            try {
+                service.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
     }
 
-    private void setSelfAndChildrenRecursive(DataStructure<?> struct, Object it, DataNode data) {
+    private void setSelfAndChildrenRecursive(
+            DataStructure<?> struct, Object it, DataNode data, @Nullable DataNode previous, String path,
+            List<Change> changed
+    ) {
         for (var property : struct.getProperties()) {
-            var        node     = data.get(property.getName());
+            var node = data.get(property.getName());
+            var prev = previous == null ? null : previous.get(property.getName());
+            if (previous != null && sameData(node, prev)) continue; // unchanged since the last reload
+
+            var        propPath = path.isEmpty() ? property.getName() : path + '.' + property.getName();
             var        propType = property.getType();
             Object     value    = null;
             Class<?>[] classes  = null;
@@ -153,14 +239,33 @@ public class ConfigurationManager<T extends DataNode> {
 
             if (propType.isStandard() || propType.isArray() || classes != null) {
                 if (propType.isStandard() && value == null) value = propType.parse(node.asString());
+                var old = property.getFrom(it);
                 property.setFor(it, uncheckedCast(value));
+                if (!Objects.deepEquals(old, value)) changed.add(new Change(propPath, old, value));
             } else //noinspection ConstantValue <- false positive for some reason
                 if (node != null) setSelfAndChildrenRecursive(DataStructure.of(propType.getTargetClass()),
                         property.getFrom(it),
-                        node);
+                        node,
+                        prev,
+                        propPath,
+                        changed);
         }
     }
 
+    private static boolean sameData(@Nullable DataNode a, @Nullable DataNode b) {
+        if (a == b) return true;
+        if (a == null || b == null) return false;
+        return switch (a) {
+            case DataNode.Object obj when b instanceof DataNode.Object other -> obj.size() == other.size() && obj.entrySet()
+                    .stream()
+                    .allMatch(e -> sameData(e.getValue(), other.get(e.getKey())));
+            case DataNode.Array arr when b instanceof DataNode.Array other -> arr.size() == other.size() && IntStream.range(0,
+                    arr.size()).allMatch(i -> sameData(arr.get(i), other.get(i)));
+            case DataNode.Value<?> val when b instanceof DataNode.Value<?> other -> Objects.deepEquals(val.getValue(), other.getValue());
+            default -> false;
+        };
+    }
+
     @SneakyThrows
     public void save() {
         DataNode data = config;
@@ -213,6 +318,13 @@ public class ConfigurationManager<T extends DataNode> {
         }
     }
 
+    /**
+     * A property that changed its value during a reload.
+     *
+     * @param path dot-separated property names, starting at the configuration root
+     */
+    public record Change(String path, @Nullable Object previous, @Nullable Object value) {}
+
     public interface Presentation extends UncheckedCloseable {
         void clear();
 
@@ -3,11 +3,13 @@ package org.comroid.api.data.bind;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 import lombok.Value;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import org.comroid.annotations.Alias;
 import org.comroid.annotations.AnnotatedTarget;
 import org.comroid.annotations.Category;
@@ -17,6 +19,8 @@ import org.comroid.annotations.Order;
 import org.comroid.annotations.internal.Annotations;
 import org.comroid.api.Polyfill;
 import org.comroid.api.attr.Named;
+import org.comroid.api.config.Adapt;
+import org.comroid.api.config.adapter.TypeAdapter;
 import org.comroid.api.data.seri.type.StandardValueType;
 import org.comroid.api.data.seri.type.ValueType;
 import org.comroid.api.func.ValuePointer;
@@ -25,6 +29,7 @@ import org.comroid.api.func.util.Invocable;
 import org.comroid.api.func.util.Streams;
 import org.comroid.api.info.Constraint;
 import org.comroid.api.info.Log;
+import org.comroid.api.map.Cache;
 import org.comroid.api.text.Capitalization;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -61,9 +66,7 @@ import static org.comroid.api.text.Capitalization.*;
 @lombok.extern.java.Log
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class DataStructure<T> implements Named {
-    // todo: fix WeakCache
-    //private static final WeakCache<Key<?>, DataStructure<?>> $cache = new WeakCache<>(DataStructure::create);
-    private static final Map<Key<?>, DataStructure<?>> $cache = new ConcurrentHashMap<>();
+    private static final Map<Key<?>, DataStructure<?>> $cache = new Cache<>();
     public static final Map<Key<?>, DataStructure<?>> cache = Collections.unmodifiableMap($cache);
 
     public static <T> DataStructure<T> of(@NotNull Class<? super T> target) {
@@ -76,7 +79,8 @@ public class DataStructure<T> implements Named {
             final @NotNull Class<? super T> above
     ) {
         final var key = new Key<>(target, above);
-        if ($cache.containsKey(key)) return uncheckedCast($cache.get(key));
+        final var cached = $cache.get(key);
+        if (cached != null) return uncheckedCast(cached);
 
         final var struct = new DataStructure<T>(target);
 
@@ -131,8 +135,8 @@ public class DataStructure<T> implements Named {
                 parts.add(member);
                 if (member instanceof Field fld) {
                     type = ValueType.of(fld.getType());
-                    getter = Invocable.ofFieldGet(fld);
-                    if (!Modifier.isFinal(member.getModifiers())) setter = Invocable.ofFieldSet(fld);
+                    getter = Invocable.ofFieldGetHandle(fld);
+                    if (!Modifier.isFinal(member.getModifiers())) setter = Invocable.ofFieldSetHandle(fld);
 
                     Arrays.stream(target.getMethods())
                             .filter(mtd -> mtd.getName().toLowerCase().endsWith(name[0].toLowerCase()))
@@ -144,7 +148,7 @@ public class DataStructure<T> implements Named {
                 } else if (member instanceof Method mtd) {
                     name[0] = lowerCamelCase.convert(name[0].substring(3));
                     type   = ValueType.of(mtd.getReturnType());
-                    getter = Invocable.ofMethodCall(mtd);
+                    getter = Invocable.ofMethodHandle(mtd);
 
                     setter = Wrap.ofOptional(Arrays.stream(target.getMethods())
                             .filter(this::filterSystem)
@@ -157,7 +161,7 @@ public class DataStructure<T> implements Named {
                                         "set" + UpperCamelCase.convert(name[0])) && checkAccess(candidate) && candidate.getParameterCount() == 1 && ValueType.of(
                                         candidate.getParameterTypes()[0]).equals(type);
                             })
-                            .findAny()).peek(parts::add).ifPresentMap(Invocable::ofMethodCall);
+                            .findAny()).peek(parts::add).ifPresentMap(Invocable::ofMethodHandle);
 
                     Arrays.stream(target.getDeclaredFields())
                             .filter(fld -> fld.getName().equals(name[0]))
@@ -271,6 +275,8 @@ public class DataStructure<T> implements Named {
                                 .peek(ctor -> struct.constructors.add(uncheckedCast(ctor)))))
                 .toList();
 
+        struct.declaredProperties.values().stream().distinct().forEach(struct.accessors::add);
+
         // init parents
         $cache.put(key, struct);
         Stream.of(target.getSuperclass())
@@ -293,6 +299,15 @@ public class DataStructure<T> implements Named {
     @NotNull @ToString.Exclude List<DataStructure<? super T>> parents            = new ArrayList<>();
     @NotNull @ToString.Exclude List<Constructor>              constructors       = new ArrayList<>();
     @NotNull @ToString.Exclude Map<String, Property<?>>       declaredProperties = new ConcurrentHashMap<>();
+    @NotNull @ToString.Exclude @Getter(AccessLevel.NONE) List<Property<?>> accessors = new ArrayList<>();
+
+    /**
+     * The declared properties without their alias duplicates, as used for serialization.
+     * Their accessors are bound as {@link java.lang.invoke.MethodHandle}s where possible.
+     */
+    public List<Property<?>> getAccessors() {
+        return Collections.unmodifiableList(accessors);
+    }
 
     public Set<DataStructure<? super T>.Property<?>> getProperties() {
         var set = new HashSet<DataStructure<? super T>.Property<?>>(declaredProperties.values());
@@ -430,6 +445,8 @@ public class DataStructure<T> implements Named {
         boolean readonly;
         @Nullable @ToString.Exclude @Getter(onMethod = @__(@JsonIgnore)) Invocable<V> getter;
         @Nullable @ToString.Exclude @Getter(onMethod = @__(@JsonIgnore)) Invocable<?> setter;
+        @NonFinal @Nullable @ToString.Exclude @EqualsAndHashCode.Exclude @Getter(AccessLevel.NONE) TypeAdapter<V, ?> adapter;
+        @NonFinal @ToString.Exclude @EqualsAndHashCode.Exclude @Getter(AccessLevel.NONE) volatile boolean adapterResolved;
 
         public Property(
                 @NotNull String name, @NotNull AnnotatedElement context, @NotNull Class<?> declaringClass,
@@ -479,6 +496,24 @@ public class DataStructure<T> implements Named {
             return getter.invokeSilent(target);
         }
 
+        /**
+         * The {@link TypeAdapter} selected by this property's {@link Adapt} annotation, if any.
+         * Resolved once; an {@link Adapt} without a registered adapter is looked up again on the next call.
+         */
+        @JsonIgnore
+        public @Nullable TypeAdapter<V, ?> getAdapter() {
+            if (adapterResolved) return adapter;
+            var adapt = getAnnotation(Adapt.class);
+            adapter = adapt == null ? null : TypeAdapter.CACHE.values()
+                    .stream()
+                    .filter(adp -> Arrays.stream(adapt.value()).anyMatch(type -> type.isInstance(adp)))
+                    .findFirst()
+                    .map(Polyfill::<TypeAdapter<V, ?>>uncheckedCast)
+                    .orElse(null);
+            adapterResolved = adapt == null || adapter != null;
+            return adapter;
+        }
+
         public boolean canSet() {
             return !isReadonly() && setter != null;
         }
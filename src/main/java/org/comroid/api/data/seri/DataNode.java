@@ -9,8 +9,6 @@ import lombok.experimental.Delegate;
 import lombok.experimental.NonFinal;
 import org.comroid.annotations.Ignore;
 import org.comroid.api.Polyfill;
-import org.comroid.api.config.Adapt;
-import org.comroid.api.config.adapter.TypeAdapter;
 import org.comroid.api.data.ByteArray;
 import org.comroid.api.data.bind.DataStructure;
 import org.comroid.api.data.seri.adp.FormData;
@@ -26,17 +24,16 @@ import org.comroid.api.func.util.Debug;
 import org.comroid.api.func.util.DelegateStream;
 import org.comroid.api.info.Constraint;
 import org.comroid.api.java.Activator;
-import org.comroid.api.java.StackTraceUtils;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
 import java.io.OutputStream;
-import java.io.StringReader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -89,20 +86,14 @@ public interface DataNode extends MimeType.Container, StringSerializable, Specif
                 }
             });
         return DataStructure.of(it.getClass(), java.lang.Object.class)
-                .getDeclaredProperties()
-                .values()
+                .getAccessors()
                 .stream()
                 .map(Polyfill::<DataStructure<java.lang.Object>.Property<java.lang.Object>>uncheckedCast)
                 .map(prop -> {
-                    final java.lang.Object obj = prop.getFrom(it);
-                    return Stream.ofNullable(prop.getAnnotation(Adapt.class))
-                            .flatMap(adapt -> TypeAdapter.CACHE.values()
-                                    .stream()
-                                    .filter(adp -> Arrays.stream(adapt.value()).anyMatch(type -> type.isInstance(adp))))
-                            .findFirst()
-                            .map(adp -> adp.toSerializable(Context.root(), Polyfill.uncheckedCast(obj)))
-                            .map(value -> new Entry(prop.getName(), of(value)))
-                            .orElseGet(() -> new Entry(prop.getName(), of(obj)));
+                    final java.lang.Object obj     = prop.getFrom(it);
+                    final var              adapter = prop.getAdapter();
+                    return new Entry(prop.getName(),
+                            of(adapter == null ? obj : adapter.toSerializable(Context.root(), obj)));
                 });
     }
 
@@ -132,14 +123,7 @@ public interface DataNode extends MimeType.Container, StringSerializable, Specif
     @Override
     @JsonIgnore
     default MimeType getMimeType() {
-        final var supported = Map.of("json", MimeType.JSON, "form", MimeType.URLENCODED);
-        return StackTraceUtils.stream()
-                .map(StackTraceElement::getMethodName)
-                .map(name -> supported.getOrDefault(name, null))
-                .filter(Objects::nonNull)
-                .findFirst()
-                //.orElseThrow(()->new AbstractMethodError("MimeType was not specified or supported for DataNode " + this));
-                .orElse(MimeType.JSON);
+        return MimeTypes.CACHE.get(getClass());
     }
 
     default boolean isNull() {
@@ -148,11 +132,16 @@ public interface DataNode extends MimeType.Container, StringSerializable, Specif
 
     @Override
     default String toSerializedString() {
-        return this instanceof JSON.Node ? toString() : json().toSerializedString();
+        return this instanceof JSON.Node ? toString() : JSON.Writer.serialize(this);
     }
 
     default DelegateStream.Input toInputStream() {
-        return new DelegateStream.Input(new StringReader(toString()));
+        return new DelegateStream.Input(switch (this) {
+            case Plain plain -> new ByteArrayInputStream(plain.toBytes());
+            case FormData.Object form -> new ByteArrayInputStream(form.toString().getBytes(StandardCharsets.UTF_8));
+            case Value<?> value -> new ByteArrayInputStream(value.toString().getBytes(StandardCharsets.UTF_8));
+            default -> JSON.Writer.stream(this);
+        });
     }
 
     default JSON.Node json() {
@@ -329,6 +318,26 @@ public interface DataNode extends MimeType.Container, StringSerializable, Specif
         return properties(this);
     }
 
+    @ApiStatus.Internal
+    final class MimeTypes {
+        /**
+         * MimeType of every {@link DataNode} implementation, resolved once per type.
+         * Types that know their format override {@link DataNode#getMimeType()} themselves;
+         * this only covers the generic node types.
+         */
+        static final ClassValue<MimeType> CACHE = new ClassValue<>() {
+            @Override
+            protected MimeType computeValue(Class<?> type) {
+                if (FormData.Object.class.isAssignableFrom(type)) return MimeType.URLENCODED;
+                return MimeType.JSON;
+            }
+        };
+
+        private MimeTypes() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
     @Data
     abstract class Base implements DataNode {
         protected final List<DataNode> children = new ArrayList<>();
@@ -345,7 +354,8 @@ public interface DataNode extends MimeType.Container, StringSerializable, Specif
 
         @SneakyThrows
         public void write(DataNode dataNode) {
-            write(StandardCharsets.US_ASCII.encode(dataNode.toString()).array());
+            if (dataNode instanceof FormData.Object form) write(form.toString().getBytes(StandardCharsets.UTF_8));
+            else JSON.Writer.write(dataNode, (OutputStream) this);
         }
     }
 
@@ -468,9 +478,7 @@ public interface DataNode extends MimeType.Container, StringSerializable, Specif
 
         @Override
         public String toSerializedString() {
-            var str = String.valueOf(value);
-            if (value instanceof String) return "\"%s\"".formatted(str);
-            return str;
+            return JSON.Writer.serialize(this);
         }
 
         @Override
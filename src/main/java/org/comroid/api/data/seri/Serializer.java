@@ -2,6 +2,9 @@ package org.comroid.api.data.seri;
 
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Function;
 
 public interface Serializer<T> extends Function<String, T>, MimeType.Container {
@@ -13,6 +16,15 @@ public interface Serializer<T> extends Function<String, T>, MimeType.Container {
     @Nullable
     T parse(@Nullable String data);
 
+    /**
+     * Parses the data from a stream. Serializers that can read incrementally override this;
+     * by default the whole stream is read into a String first.
+     */
+    @Nullable
+    default T parse(InputStream data) throws IOException {
+        return parse(new String(data.readAllBytes(), StandardCharsets.UTF_8));
+    }
+
     T createObjectNode();
 
     T createArrayNode();
@@ -7,19 +7,30 @@ import org.comroid.annotations.Instance;
 import org.comroid.api.data.seri.DataNode;
 import org.comroid.api.data.seri.MimeType;
 import org.comroid.api.data.seri.Serializer;
-import org.comroid.api.data.seri.type.StandardValueType;
 import org.comroid.api.func.util.DelegateStream;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public enum JSON implements Serializer<JSON.Node> {
     @Instance Parser;
@@ -33,7 +44,24 @@ public enum JSON implements Serializer<JSON.Node> {
     public @NotNull JSON.Node parse(@Language("JSON") @Nullable String data) {
         if (data == null)
             return DataNode.Value.NULL.json();
-        try (var reader = new Deserializer(new StringReader(data))) {
+        return parse(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public @NotNull JSON.Node parse(byte[] data) {
+        try (var reader = new Deserializer(data)) {
+            return reader.readNode();
+        }
+    }
+
+    @Override
+    public @NotNull JSON.Node parse(InputStream data) {
+        try (var reader = new Deserializer(data)) {
+            return reader.readNode();
+        }
+    }
+
+    public @NotNull JSON.Node parse(ByteBuffer data) {
+        try (var reader = new Deserializer(data)) {
             return reader.readNode();
         }
     }
@@ -61,125 +89,703 @@ public enum JSON implements Serializer<JSON.Node> {
     }
 
     public static class Deserializer extends DelegateStream.Input {
-        private char c;
+        private static final int      BufferSize = 8192;
+        private static final double[] Pow10      = {
+                1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+                1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+        };
+        private final @Nullable InputStream   source;
+        private final           StringBuilder text = new StringBuilder();
+        private                 byte[]        buf;
+        private                 int           pos;
+        private                 int           limit;
+        private                 int           mark = -1;
 
         public Deserializer(InputStream delegate) {
             super(delegate);
+            this.source = delegate;
+            this.buf    = new byte[BufferSize];
         }
 
         public Deserializer(Reader delegate) {
             super(delegate);
+            this.source = new EncodingInputStream(delegate);
+            this.buf    = new byte[BufferSize];
         }
 
-        private char getOrAdvance() {
-            if (c == 0)
-                advance();
-            return c;
+        /**
+         * Parses directly from the given UTF-8 encoded array without copying it.
+         */
+        public Deserializer(byte[] data) {
+            this(data, 0, data.length);
         }
 
-        private char getOrAdvanceAndTake() {
-            if (c == 0)
-                advance();
-            return take();
+        public Deserializer(byte[] data, int offset, int length) {
+            super(new ByteArrayInputStream(data, offset, length));
+            this.source = null;
+            this.buf    = data;
+            this.pos    = offset;
+            this.limit  = offset + length;
         }
 
-        private char getAndAdvance() {
-            var c = this.c;
-            advance();
-            return c;
+        /**
+         * Parses from the remaining content of the given UTF-8 encoded buffer.
+         * Heap buffers are read in place; direct buffers are streamed through a window.
+         */
+        public Deserializer(ByteBuffer data) {
+            this(data.hasArray() ? new ByteArrayInputStream(data.array(),
+                    data.arrayOffset() + data.position(),
+                    data.remaining()) : new ByteBufferInputStream(data.duplicate()), data);
         }
 
-        @SneakyThrows
-        private java.lang.Object readToken() {
-            // first char may have been read to buffer by previous call
-            var c   = getOrAdvanceAndTake();
-            var numeric = Character.isDigit(c) || c == '-';
-            var buf = new StringBuilder();
-            if (numeric)
-                buf.append(c);
-            while (true) {
-                c = advance();
-                if (numeric
-                    ? !Character.isDigit(c)
-                    : c == '"')
-                    break;
-                else if (c == '\\')
-                    buf.append(c = getAndAdvance());
-                buf.append(c);
-            }
-            var str = buf.toString();
-            if (!numeric) {
-                take();
-                return str;
+        private Deserializer(InputStream delegate, ByteBuffer data) {
+            super(delegate);
+            if (data.hasArray()) {
+                this.source = null;
+                this.buf    = data.array();
+                this.pos    = data.arrayOffset() + data.position();
+                this.limit  = data.arrayOffset() + data.limit();
+            } else {
+                this.source = delegate;
+                this.buf    = new byte[BufferSize];
             }
-            return StandardValueType.findGoodType(str);
         }
 
         @SneakyThrows
         public JSON.Node readNode() {
-            return switch (getOrAdvance()) {
+            return switch (peek()) {
                 case '{' -> readObject();
                 case '[' -> readArray();
-                default -> new DataNode.Value<>(readToken()).json();
+                case '"' -> new JSON.Value<>(readString());
+                case 't' -> readLiteral("true", true);
+                case 'f' -> readLiteral("false", false);
+                case 'n' -> readLiteral("null", null);
+                default -> new JSON.Value<>(readNumber());
             };
         }
 
         @SneakyThrows
         public Object readObject() {
-            if (getOrAdvanceAndTake() != '{')
-                throw err(c, '{', "start of object");
+            expect('{', "start of object");
             var obj = new Object();
 
-            while (getOrAdvance() != '}') {
-                if (getOrAdvance() == ',')
-                    take();
-                var key = readToken().toString();
-                if (getOrAdvance() != ':')
-                    throw err(this.c, ':', "key/value delimiter");
-                take();
-                var val = readNode();
-                obj.put(key, val);
-            }
-            take();
-            return obj;
+            if (peek() == '}') {
+                pos++;
+                return obj;
+            }
+            while (true) {
+                if (peek() != '"') throw err(current(), '"', "start of key");
+                var key = readString();
+                expect(':', "key/value delimiter");
+                obj.put(key, readNode());
+
+                var c = peek();
+                pos++;
+                if (c == '}') return obj;
+                if (c != ',') throw err((char) c, ',', "object member delimiter");
+            }
         }
 
         @SneakyThrows
         public Array readArray() {
-            if (getOrAdvanceAndTake() != '[')
-                throw err(c, '[', "start of array");
+            expect('[', "start of array");
             var arr = new Array();
 
-            while (getOrAdvance() != ']') {
-                if (getOrAdvance() == ',')
-                    take();
-                var val = readNode();
-                arr.add(val);
+            if (peek() == ']') {
+                pos++;
+                return arr;
+            }
+            while (true) {
+                arr.add(readNode());
+
+                var c = peek();
+                pos++;
+                if (c == ']') return arr;
+                if (c != ',') throw err((char) c, ',', "array element delimiter");
             }
-            take();
-            return arr;
         }
 
-        private char take() {
-            var c = this.c;
-            this.c = 0;
-            return c;
+        private String readString() throws IOException {
+            expect('"', "start of string");
+            mark = pos;
+            try {
+                // fast path: no escape sequences, decode straight from the window
+                while (true) {
+                    if (pos == limit && !fill()) throw eof();
+                    var b = buf[pos];
+                    if (b == '"') {
+                        var str = new String(buf, mark, pos - mark, StandardCharsets.UTF_8);
+                        pos++;
+                        return str;
+                    }
+                    if (b == '\\') break;
+                    pos++;
+                }
+
+                // slow path: collect escaped segments in the reused builder
+                text.setLength(0);
+                while (true) {
+                    if (pos == limit && !fill()) throw eof();
+                    var b = buf[pos];
+                    if (b == '"') {
+                        text.append(new String(buf, mark, pos - mark, StandardCharsets.UTF_8));
+                        pos++;
+                        return text.toString();
+                    }
+                    if (b != '\\') {
+                        pos++;
+                        continue;
+                    }
+                    text.append(new String(buf, mark, pos - mark, StandardCharsets.UTF_8));
+                    pos++;
+                    var escaped = (char) next();
+                    text.append(switch (escaped) {
+                        case '"', '\\', '/' -> escaped;
+                        case 'b' -> '\b';
+                        case 'f' -> '\f';
+                        case 'n' -> '\n';
+                        case 'r' -> '\r';
+                        case 't' -> '\t';
+                        case 'u' -> (char) (hex(next()) << 12 | hex(next()) << 8 | hex(next()) << 4 | hex(next()));
+                        default -> throw new IOException("invalid escape sequence '\\" + escaped + "'");
+                    });
+                    mark = pos;
+                }
+            } finally {
+                mark = -1;
+            }
         }
 
-        @SneakyThrows
-        private char advance() {
-            int c;
-            do {
-                c = read();
-                if (c == -1)
-                    throw new IOException("unexpected end of stream");
-            } while (Character.isWhitespace(c) || c == '\n' || c == '\r' || c == '\t');
-            return this.c = (char) c;
+        private java.lang.Object readNumber() throws IOException {
+            mark = pos;
+            try {
+                var negative = false;
+                var mantissa = 0L;
+                var digits   = 0;
+                var exponent = 0;
+                var floating = false;
+                int c        = next();
+
+                if (c == '-') {
+                    negative = true;
+                    c        = next();
+                }
+                if (c < '0' || c > '9') throw err((char) c, '0', "start of number");
+                // integral part
+                for (; c >= '0' && c <= '9'; c = nextOrEnd()) {
+                    if (digits < 18) mantissa = mantissa * 10 + (c - '0');
+                    else exponent++;
+                    if (mantissa != 0) digits++;
+                }
+                // fractional part
+                if (c == '.') {
+                    floating = true;
+                    c        = nextOrEnd();
+                    if (c < '0' || c > '9') throw err((char) c, '0', "fraction digits");
+                    for (; c >= '0' && c <= '9'; c = nextOrEnd()) {
+                        if (digits < 18) {
+                            mantissa = mantissa * 10 + (c - '0');
+                            exponent--;
+                            if (mantissa != 0) digits++;
+                        }
+                    }
+                }
+                // exponent part
+                if (c == 'e' || c == 'E') {
+                    floating = true;
+                    c        = nextOrEnd();
+                    var expNegative = c == '-';
+                    if (c == '-' || c == '+') c = nextOrEnd();
+                    if (c < '0' || c > '9') throw err((char) c, '0', "exponent digits");
+                    var exp = 0;
+                    for (; c >= '0' && c <= '9'; c = nextOrEnd())
+                        if (exp < 10_000) exp = exp * 10 + (c - '0');
+                    exponent += expNegative ? -exp : exp;
+                }
+                // the last read char was not part of the number
+                if (c != -1) pos--;
+
+                if (!floating && exponent == 0) {
+                    var value = negative ? -mantissa : mantissa;
+                    if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) return (int) value;
+                    return value;
+                } else if (digits <= 15 && Math.abs(exponent) <= 22) {
+                    // exact: both operands are representable, so the single rounding step is correct
+                    double value = mantissa;
+                    value = exponent < 0 ? value / Pow10[-exponent] : value * Pow10[exponent];
+                    return negative ? -value : value;
+                }
+                // too many digits for the fast paths
+                var str = new String(buf, mark, pos - mark, StandardCharsets.US_ASCII);
+                if (!floating) try {
+                    return Long.parseLong(str);
+                } catch (NumberFormatException ignored) {
+                }
+                return Double.parseDouble(str);
+            } finally {
+                mark = -1;
+            }
+        }
+
+        private JSON.Value<?> readLiteral(String literal, @Nullable java.lang.Object value) throws IOException {
+            for (var i = 0; i < literal.length(); i++) {
+                var c = next();
+                if (c != literal.charAt(i)) throw err((char) c, literal.charAt(i), "literal " + literal);
+            }
+            return new JSON.Value<>(value);
+        }
+
+        private void expect(char expected, String where) throws IOException {
+            var c = peek();
+            if (c != expected) throw err((char) c, expected, where);
+            pos++;
+        }
+
+        /**
+         * @return the next non-whitespace char without consuming it
+         */
+        private int peek() throws IOException {
+            while (true) {
+                if (pos == limit && !fill()) throw eof();
+                var b = buf[pos];
+                if (b != ' ' && b != '\n' && b != '\r' && b != '\t') return b & 0xff;
+                pos++;
+            }
+        }
+
+        private int next() throws IOException {
+            if (pos == limit && !fill()) throw eof();
+            return buf[pos++] & 0xff;
+        }
+
+        private int nextOrEnd() throws IOException {
+            if (pos == limit && !fill()) return -1;
+            return buf[pos++] & 0xff;
+        }
+
+        private char current() {
+            return pos < limit ? (char) (buf[pos] & 0xff) : 0;
+        }
+
+        /**
+         * Reads more data into the window, keeping everything from {@link #mark} on.
+         *
+         * @return whether more data is available
+         */
+        private boolean fill() throws IOException {
+            if (source == null) return false;
+            var keep = mark < 0 ? pos : mark;
+            if (keep > 0) {
+                System.arraycopy(buf, keep, buf, 0, limit - keep);
+                limit -= keep;
+                pos -= keep;
+                if (mark >= 0) mark = 0;
+            } else if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+
+            var read = source.read(buf, limit, buf.length - limit);
+            if (read <= 0) return false;
+            limit += read;
+            return true;
+        }
+
+        private int hex(int c) throws IOException {
+            if (c >= '0' && c <= '9') return c - '0';
+            if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+            if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+            throw new IOException("invalid hex digit '" + (char) c + "' in unicode escape");
+        }
+
+        private IOException eof() {
+            return new IOException("unexpected end of stream");
         }
 
         private IOException err(char actual, char expected, String where) {
             return new IOException("invalid char '" + actual + "' at " + where + "; expected '" + expected + "'");
         }
+
+        private static final class EncodingInputStream extends InputStream {
+            private final Reader         reader;
+            private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            private final CharBuffer     chars   = CharBuffer.allocate(BufferSize).flip();
+            private final ByteBuffer     bytes   = ByteBuffer.allocate(BufferSize * 3).flip();
+            private       boolean        eof     = false;
+
+            private EncodingInputStream(Reader reader) {
+                this.reader = reader;
+            }
+
+            @Override
+            public int read() throws IOException {
+                while (!bytes.hasRemaining())
+                    if (!refill()) return -1;
+                return bytes.get() & 0xff;
+            }
+
+            @Override
+            public int read(byte @NotNull [] b, int off, int len) throws IOException {
+                if (len == 0) return 0;
+                while (!bytes.hasRemaining())
+                    if (!refill()) return -1;
+                var n = Math.min(len, bytes.remaining());
+                bytes.get(b, off, n);
+                return n;
+            }
+
+            private boolean refill() throws IOException {
+                if (eof) return false;
+                bytes.clear();
+                chars.compact();
+                if (reader.read(chars) < 0) eof = true;
+                chars.flip();
+                encoder.encode(chars, bytes, eof);
+                if (eof) encoder.flush(bytes);
+                bytes.flip();
+                return true;
+            }
+        }
+
+        private static final class ByteBufferInputStream extends InputStream {
+            private final ByteBuffer data;
+
+            private ByteBufferInputStream(ByteBuffer data) {
+                this.data = data;
+            }
+
+            @Override
+            public int read() {
+                return data.hasRemaining() ? data.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte @NotNull [] b, int off, int len) {
+                if (!data.hasRemaining()) return -1;
+                var n = Math.min(len, data.remaining());
+                data.get(b, off, n);
+                return n;
+            }
+        }
+    }
+
+    /**
+     * Streams a {@link DataNode} tree as JSON text without building intermediate strings.
+     * The tree is walked with an explicit stack into a fixed char window, which is handed to the target whenever it fills
+     * up; this also allows pulling the output as an {@link InputStream}. Writers used by the static methods are cached
+     * per thread, so their buffers are reused between calls.
+     */
+    public static final class Writer {
+        private static final int                 BufferSize = 8192;
+        private static final int                 Reserve    = 8;
+        private static final ThreadLocal<Writer> Cache      = ThreadLocal.withInitial(Writer::new);
+        private final        char[]              chars      = new char[BufferSize];
+        private final        ByteBuffer          bytes      = ByteBuffer.allocate(BufferSize * 3);
+        private final        StringBuilder       string     = new StringBuilder();
+        private final        Deque<Frame>        stack      = new ArrayDeque<>();
+        private final        CharsetEncoder      encoder    = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private              int                 len;
+        private @Nullable    DataNode            next;
+        private @Nullable    String              pending;
+        private              int                 pendingPos;
+        private              boolean             pendingQuoted;
+        private              boolean             pendingKey;
+        private              boolean             busy;
+
+        private Writer() {
+        }
+
+        public static String serialize(DataNode node) {
+            var writer = acquire();
+            try {
+                writer.reset(node);
+                writer.string.setLength(0);
+                writer.writeTo(writer.string);
+                return writer.string.toString();
+            } finally {
+                writer.release();
+            }
+        }
+
+        public static byte[] toBytes(DataNode node) {
+            var out = new ByteArrayOutputStream();
+            write(node, out);
+            return out.toByteArray();
+        }
+
+        @SneakyThrows
+        public static void write(DataNode node, Appendable out) {
+            var writer = acquire();
+            try {
+                writer.reset(node);
+                writer.writeTo(out);
+            } finally {
+                writer.release();
+            }
+        }
+
+        /**
+         * Writes UTF-8 encoded JSON to the stream. The stream is neither flushed nor closed.
+         */
+        @SneakyThrows
+        public static void write(DataNode node, OutputStream out) {
+            var writer = acquire();
+            try {
+                writer.reset(node);
+                boolean more;
+                do {
+                    more = writer.fill();
+                    writer.bytes.clear();
+                    writer.encode(writer.bytes, !more);
+                    out.write(writer.bytes.array(), 0, writer.bytes.position());
+                } while (more || writer.len > 0);
+            } finally {
+                writer.release();
+            }
+        }
+
+        /**
+         * Writes UTF-8 encoded JSON to the buffer.
+         *
+         * @throws BufferOverflowException if the buffer has not enough space remaining
+         */
+        public static void write(DataNode node, ByteBuffer out) throws BufferOverflowException {
+            var writer = acquire();
+            try {
+                writer.reset(node);
+                boolean more;
+                do {
+                    more = writer.fill();
+                    if (writer.encode(out, !more).isOverflow()) throw new BufferOverflowException();
+                } while (more || writer.len > 0);
+            } finally {
+                writer.release();
+            }
+        }
+
+        /**
+         * @return a stream that serializes the node lazily as it is being read
+         */
+        public static InputStream stream(DataNode node) {
+            var writer = new Writer();
+            writer.reset(node);
+            return writer.new Pull();
+        }
+
+        private static Writer acquire() {
+            var writer = Cache.get();
+            // nested serialization, e.g. from a value's toString(), gets its own buffers
+            if (writer.busy) return new Writer();
+            writer.busy = true;
+            return writer;
+        }
+
+        private void release() {
+            stack.clear();
+            next    = null;
+            pending = null;
+            busy    = false;
+            if (string.capacity() > BufferSize * 16) {
+                // do not keep huge results alive in the thread cache
+                string.setLength(0);
+                string.trimToSize();
+            }
+        }
+
+        private void reset(DataNode node) {
+            stack.clear();
+            encoder.reset();
+            len     = 0;
+            next    = node;
+            pending = null;
+        }
+
+        private void writeTo(Appendable out) throws IOException {
+            boolean more;
+            do {
+                more = fill();
+                if (out instanceof StringBuilder sb) sb.append(chars, 0, len);
+                else out.append(CharBuffer.wrap(chars, 0, len));
+                len = 0;
+            } while (more);
+        }
+
+        private CoderResult encode(ByteBuffer out, boolean end) {
+            var in     = CharBuffer.wrap(chars, 0, len);
+            var result = encoder.encode(in, out, end);
+            // a dangling high surrogate is kept for the next window
+            var rest = in.remaining();
+            System.arraycopy(chars, len - rest, chars, 0, rest);
+            len = rest;
+            return result;
+        }
+
+        /**
+         * Advances the walk until the char window is full or the tree is complete.
+         *
+         * @return whether there is more to write
+         */
+        private boolean fill() {
+            while (chars.length - len >= Reserve) {
+                if (pending != null) {
+                    if (!drainPending()) return true;
+                    continue;
+                }
+                if (next != null) {
+                    var node = next;
+                    next = null;
+                    open(node);
+                    continue;
+                }
+
+                var frame = stack.peek();
+                if (frame == null) return false;
+                if (!frame.iterator.hasNext()) {
+                    chars[len++] = frame.close;
+                    stack.pop();
+                    continue;
+                }
+                if (frame.first) frame.first = false;
+                else {
+                    chars[len++] = ',';
+                    chars[len++] = ' ';
+                }
+                var item = frame.iterator.next();
+                if (item instanceof Map.Entry<?, ?> entry) {
+                    chars[len++] = '"';
+                    setPending(String.valueOf(entry.getKey()), true, true);
+                    next = (DataNode) entry.getValue();
+                } else next = item == null ? DataNode.Value.NULL : (DataNode) item;
+            }
+            return true;
+        }
+
+        private void open(DataNode node) {
+            switch (node) {
+                case DataNode.Object obj -> {
+                    chars[len++] = '{';
+                    stack.push(new Frame(obj.entrySet().iterator(), '}'));
+                }
+                case DataNode.Array arr -> {
+                    chars[len++] = '[';
+                    stack.push(new Frame(arr.iterator(), ']'));
+                }
+                case DataNode.Value<?> val -> {
+                    var value = val.getValue();
+                    if (value == null || value instanceof Number || value instanceof Boolean)
+                        setPending(String.valueOf(value), false, false);
+                    else {
+                        chars[len++] = '"';
+                        setPending(String.valueOf(value), true, false);
+                    }
+                }
+                default -> {
+                    var json = node.json();
+                    if (json == node) setPending(node.toString(), false, false);
+                    else open(json);
+                }
+            }
+        }
+
+        private void setPending(String str, boolean quoted, boolean key) {
+            pending       = str;
+            pendingPos    = 0;
+            pendingQuoted = quoted;
+            pendingKey    = key;
+        }
+
+        /**
+         * @return whether the pending string was written completely
+         */
+        private boolean drainPending() {
+            var str = pending;
+            assert str != null;
+            while (pendingPos < str.length()) {
+                if (chars.length - len < 6) return false;
+                if (!pendingQuoted) {
+                    var n = Math.min(str.length() - pendingPos, chars.length - len);
+                    str.getChars(pendingPos, pendingPos + n, chars, len);
+                    len += n;
+                    pendingPos += n;
+                    continue;
+                }
+
+                var c = str.charAt(pendingPos++);
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    chars[len++] = c;
+                    continue;
+                }
+                chars[len++] = '\\';
+                switch (c) {
+                    case '"', '\\' -> chars[len++] = c;
+                    case '\b' -> chars[len++] = 'b';
+                    case '\f' -> chars[len++] = 'f';
+                    case '\n' -> chars[len++] = 'n';
+                    case '\r' -> chars[len++] = 'r';
+                    case '\t' -> chars[len++] = 't';
+                    default -> {
+                        chars[len++] = 'u';
+                        chars[len++] = '0';
+                        chars[len++] = '0';
+                        chars[len++] = Character.forDigit(c >> 4, 16);
+                        chars[len++] = Character.forDigit(c & 0xf, 16);
+                    }
+                }
+            }
+            if (chars.length - len < 3) return false;
+            if (pendingQuoted) chars[len++] = '"';
+            if (pendingKey) {
+                chars[len++] = ':';
+                chars[len++] = ' ';
+            }
+            pending = null;
+            return true;
+        }
+
+        private static final class Frame {
+            private final Iterator<?> iterator;
+            private final char        close;
+            private       boolean     first = true;
+
+            private Frame(Iterator<?> iterator, char close) {
+                this.iterator = iterator;
+                this.close    = close;
+            }
+        }
+
+        private final class Pull extends InputStream {
+            private boolean more = true;
+
+            private Pull() {
+                bytes.limit(0);
+            }
+
+            @Override
+            public int read() {
+                return advance() ? bytes.get() & 0xff : -1;
+            }
+
+            @Override
+            public int read(byte @NotNull [] b, int off, int len) {
+                if (len == 0) return 0;
+                if (!advance()) return -1;
+                var n = Math.min(len, bytes.remaining());
+                bytes.get(b, off, n);
+                return n;
+            }
+
+            private boolean advance() {
+                while (!bytes.hasRemaining()) {
+                    if (!more && Writer.this.len == 0) return false;
+                    more = fill();
+                    bytes.clear();
+                    encode(bytes, !more);
+                    bytes.flip();
+                }
+                return true;
+            }
+        }
     }
 
     @Data
@@ -193,9 +799,7 @@ public enum JSON implements Serializer<JSON.Node> {
 
         @Override
         public String toSerializedString() {
-            return map.entrySet().stream()
-                    .map(e -> "\"%s\": %s".formatted(e.getKey(), e.getValue().toSerializedString()))
-                    .collect(Collectors.joining(", ", "{", "}"));
+            return Writer.serialize(this);
         }
     }
 
@@ -210,9 +814,7 @@ public enum JSON implements Serializer<JSON.Node> {
 
         @Override
         public String toSerializedString() {
-            return list.stream()
-                    .map(DataNode::toSerializedString)
-                    .collect(Collectors.joining(", ", "[", "]"));
+            return Writer.serialize(this);
         }
     }
 
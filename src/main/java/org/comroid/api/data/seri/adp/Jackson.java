@@ -9,6 +9,8 @@ import org.comroid.api.func.ext.Context;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -30,6 +32,24 @@ public enum Jackson implements Serializer<JSON.Node> {
                          List.class)) : DataNode.of(mapper.readTree(data)).json();
     }
 
+    @Override
+    @SneakyThrows
+    public @Nullable JSON.Node parse(InputStream data) {
+        final var mapper = Context.root().getFromContext(ObjectMapper.class, true).assertion();
+        final var in     = new PushbackInputStream(data, 1);
+
+        int first;
+        do first = in.read(); while (first != -1 && Character.isWhitespace(first));
+        if (first != -1) in.unread(first);
+
+        //noinspection unchecked
+        return first == '{'
+               ? org.comroid.api.data.seri.adp.JSON.Object.of(mapper.readValue(in, Map.class))
+               : first == '['
+                 ? org.comroid.api.data.seri.adp.JSON.Array.of(mapper.readValue(in, List.class))
+                 : DataNode.of(mapper.readTree(in)).json();
+    }
+
     @Override
     public JSON.Node createObjectNode() {
         return new JSON.Object();
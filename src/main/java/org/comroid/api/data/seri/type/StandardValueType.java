@@ -14,6 +14,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
@@ -25,6 +26,7 @@ import java.util.function.Supplier;
 public class StandardValueType<R> implements ValueType<R>, HtmlInputDesc {
     private static final Set<StandardValueType<?>>    $cache    = new HashSet<>();
     public static final  Set<StandardValueType<?>>    cache     = Collections.unmodifiableSet($cache);
+    private static volatile Lookup                     $lookup   = new Lookup();
     public static final StandardValueType<Boolean>   BOOLEAN   = new StandardValueType<>(Boolean.class,
             boolean.class,
             "boolean",
@@ -103,38 +105,84 @@ public class StandardValueType<R> implements ValueType<R>, HtmlInputDesc {
 //            it -> new Object[]{ it },
 //            "hidden");
 
+    /**
+     * Classifies a scalar in a single pass over the string.
+     * Integral numbers, optionally negative, of up to 9 digits become {@link Integer}, longer ones {@link Long};
+     * numbers with a {@code .} or {@code ,} separator become {@link Double}.
+     * {@code true} and {@code false} become {@link Boolean}, and lowercase UUIDs become {@link java.util.UUID}.
+     * Everything else, including numbers that exceed the range of {@code long}, is returned as-is.
+     */
     @Experimental
     public static Object findGoodType(String parse) {
         if (parse == null || parse.equals("null"))
             return null;
-        if (parse.matches("\\d{1,9}"))
-            return Integer.parseInt(parse);
-        if (parse.matches("\\d{10,}"))
-            return Long.parseLong(parse);
-        if (parse.matches("\\d+[,.]\\d+"))
-            return Double.parseDouble(parse);
-        if (parse.matches("(true)|(false)"))
-            return Boolean.parseBoolean(parse);
-        if (parse.matches(RegExpUtil.UUID4_PATTERN))
+        if (parse.isEmpty())
+            return parse;
+        var first = parse.charAt(0);
+        if (first == '-' || (first >= '0' && first <= '9')) {
+            var number = parseNumber(parse);
+            if (number != null) return number;
+        }
+        if (parse.equals("true"))
+            return true;
+        if (parse.equals("false"))
+            return false;
+        if (isUuid(parse))
             return java.util.UUID.fromString(parse);
         return parse;
     }
 
+    private static @Nullable Object parseNumber(String str) {
+        var  length    = str.length();
+        var  start     = str.charAt(0) == '-' ? 1 : 0;
+        var  separator = -1;
+        long value     = 0;
+        if (length == start) return null;
+        for (var i = start; i < length; i++) {
+            var c = str.charAt(i);
+            if (c >= '0' && c <= '9') value = value * 10 + (c - '0');
+            else if ((c == '.' || c == ',') && separator == -1 && i > start && i < length - 1) separator = i;
+            else return null;
+        }
+        if (separator != -1) return Double.parseDouble(str.replace(',', '.'));
+        var digits = length - start;
+        if (digits <= 9) return (int) (start == 1 ? -value : value);
+        if (digits <= 18) return start == 1 ? -value : value;
+        // the accumulated value may have overflowed
+        try {
+            return Long.parseLong(str);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean isUuid(String str) {
+        if (str.length() != 36) return false;
+        for (var i = 0; i < 36; i++) {
+            var c = str.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+        }
+        return true;
+    }
+
     public static <T> ValueType<T> typeOf(T value) {
         if (value == null)
             //noinspection unchecked
             return (ValueType<T>) StandardValueType.VOID;
-        return cache.stream()
-                .filter(it -> it.test(value))
-                .findAny()
-                .map(Polyfill::<StandardValueType<T>>uncheckedCast)
-                .orElse(null);
+        return $lookup.standard.get(value.getClass()).map(Polyfill::<StandardValueType<T>>uncheckedCast).orElse(null);
     }
 
     public static Wrap<ValueType<?>> forClass(Class<?> cls) {
-        return Wrap.of(cache.stream()
-                .filter(it -> it.getTargetClass().isAssignableFrom(cls) || (cls.isPrimitive() && it.getName().equals(cls.getSimpleName())))
-                .findAny());
+        return Wrap.of($lookup.standard.get(cls));
+    }
+
+    /**
+     * The memoized result of {@link ValueType#of(Class)}.
+     */
+    static ValueType<?> resolve(Class<?> cls) {
+        return $lookup.resolved.get(cls);
     }
 
     Supplier<R> defaultValue;
@@ -176,8 +224,8 @@ public class StandardValueType<R> implements ValueType<R>, HtmlInputDesc {
         this.htmlInputType       = htmlInputType;
         this.htmlInputAttributes = htmlInputAttributes;
 
-        if (!List.of("Object", "Array").contains(name))
-            $cache.add(this);
+        if (!List.of("Object", "Array").contains(name) && $cache.add(this))
+            $lookup = new Lookup(); // drop lookups that were resolved without this type
     }
 
     @Override
@@ -189,4 +237,25 @@ public class StandardValueType<R> implements ValueType<R>, HtmlInputDesc {
     public @Nullable Object defaultValue() {
         return defaultValue.get();
     }
+
+    private static final class Lookup {
+        private final ClassValue<Optional<ValueType<?>>> standard = new ClassValue<>() {
+            @Override
+            protected Optional<ValueType<?>> computeValue(Class<?> cls) {
+                return $cache.stream()
+                        .filter(it -> it.getTargetClass().isAssignableFrom(cls) || (cls.isPrimitive() && it.getName()
+                                .equals(cls.getSimpleName())))
+                        .<ValueType<?>>map(it -> it)
+                        .findAny();
+            }
+        };
+        private final ClassValue<ValueType<?>>           resolved = new ClassValue<>() {
+            @Override
+            protected ValueType<?> computeValue(Class<?> cls) {
+                return standard.get(cls)
+                        .or(() -> Optional.ofNullable(cls.isArray() ? ArrayValueType.of(cls.getComponentType()) : null))
+                        .orElseGet(() -> BoundValueType.of(cls));
+            }
+        };
+    }
 }
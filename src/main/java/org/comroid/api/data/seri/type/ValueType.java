@@ -20,10 +20,7 @@ public interface ValueType<R>
         extends ValuePointer<R>, Predicate<Object>, Named, HtmlFormElementDesc, Specifiable<ValueType<R>>,
         Default.Extension {
     static <T> ValueType<T> of(final Class<?> type) {
-        return StandardValueType.forClass(type)
-                .or(() -> type.isArray() ? ArrayValueType.of(type.getComponentType()) : null)
-                .or(() -> BoundValueType.of(type))
-                .cast();
+        return Polyfill.uncheckedCast(StandardValueType.resolve(type));
     }
 
     @Ignore
@@ -0,0 +1,331 @@
+package org.comroid.api.func.util;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.Value;
+import org.comroid.api.func.exc.ThrowingSupplier;
+import org.comroid.api.net.EncryptionUtil;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and encrypts a stream in independent blocks, which are processed in parallel and written in order.
+ * <p>
+ * Compressed only, the output is a series of gzip members and readable by any gzip decoder.
+ * Encrypted, the output is a stream of {@link FrameCodec.Prefix#Fixed32 Fixed32} frames: a random nonce, then one
+ * AES-GCM sealed block per frame, the last of which is marked so that truncation is detected.
+ */
+@Value
+@Builder
+public class BlockPipeline {
+    public static final  int          DefaultBlockSize = 1 << 20;
+    public static final  String       Transformation   = "AES/GCM/NoPadding";
+    private static final int          NonceLength      = 8;
+    private static final int          TagLength        = 16;
+    private static final byte         Last             = 1;
+    private static final byte[]       GzipHeader       = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+    private static final SecureRandom Random           = new SecureRandom();
+
+    @lombok.Builder.Default int     blockSize        = DefaultBlockSize;
+    @lombok.Builder.Default int     parallelism      = Runtime.getRuntime().availableProcessors();
+    @lombok.Builder.Default boolean compress         = true;
+    @lombok.Builder.Default int     compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    /**
+     * The AES key; {@code null} to only compress
+     */
+    @Nullable @ToString.Exclude @EqualsAndHashCode.Exclude
+    SecretKey key;
+    @lombok.Builder.Default @ToString.Exclude @EqualsAndHashCode.Exclude
+    Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * At most {@link #parallelism} blocks are in flight; writing blocks while they are.
+     * Flushing ends the current block early.
+     * Without a key and compression there is nothing to do, and {@code out} is returned as is.
+     */
+    public OutputStream encoder(OutputStream out) throws IOException {
+        if (key == null && !compress) return out;
+        return new Encoder(out);
+    }
+
+    /**
+     * Compressed-only streams are read by a {@link GZIPInputStream}, since gzip members can only be found by inflating
+     * them; encrypted streams are decrypted and inflated in parallel.
+     */
+    public InputStream decoder(InputStream in) throws IOException {
+        if (key != null) return new Decoder(in);
+        return compress ? new GZIPInputStream(in, 64 << 10) : in;
+    }
+
+    private byte[] seal(byte[] nonce, byte[] data, int length, int number, byte flags) throws GeneralSecurityException {
+        var payload = compress ? deflate(data, length, false) : data;
+        var size    = compress ? payload.length : length;
+        return EncryptionUtil.pool(Transformation).use(cipher -> {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TagLength * 8, iv(nonce, number)));
+            cipher.updateAAD(aad(number, flags));
+
+            var frame = ByteBuffer.allocate(4 + 1 + size + TagLength);
+            FrameCodec.Prefix.Fixed32.write(frame, 1 + size + TagLength);
+            frame.put(flags);
+            cipher.doFinal(payload, 0, size, frame.array(), frame.position());
+            return frame.array();
+        });
+    }
+
+    private byte[] open(byte[] nonce, byte[] sealed, int number, byte flags) throws GeneralSecurityException, DataFormatException {
+        var plain = EncryptionUtil.pool(Transformation).use(cipher -> {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TagLength * 8, iv(nonce, number)));
+            cipher.updateAAD(aad(number, flags));
+            return cipher.doFinal(sealed);
+        });
+        return compress ? inflate(plain) : plain;
+    }
+
+    private byte[] deflate(byte[] data, int length, boolean gzip) {
+        var deflater = new Deflater(compressionLevel, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+
+            var out    = new ByteArrayOutputStream(length / 2 + 64);
+            var buffer = new byte[64 << 10];
+            if (gzip) out.writeBytes(GzipHeader);
+            while (!deflater.finished())
+                out.write(buffer, 0, deflater.deflate(buffer));
+            if (gzip) {
+                var crc = new CRC32();
+                crc.update(data, 0, length);
+                writeIntLE(out, (int) crc.getValue());
+                writeIntLE(out, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] data) throws DataFormatException {
+        var inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            // one spare byte, so that a full block can still reach the end of its deflate stream
+            var out    = new byte[blockSize + 1];
+            var length = 0;
+            while (!inflater.finished()) {
+                if (length == out.length || inflater.needsInput())
+                    throw new DataFormatException("Malformed block");
+                length += inflater.inflate(out, length, out.length - length);
+            }
+            if (length > blockSize) throw new DataFormatException("Block exceeds " + blockSize + " bytes");
+            return Arrays.copyOf(out, length);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] iv(byte[] nonce, int number) {
+        return ByteBuffer.allocate(NonceLength + 4).put(nonce).putInt(number).array();
+    }
+
+    private static byte[] aad(int number, byte flags) {
+        return ByteBuffer.allocate(5).putInt(number).put(flags).array();
+    }
+
+    private static void writeIntLE(ByteArrayOutputStream out, int value) {
+        for (var i = 0; i < 4; i++)
+            out.write(value >>> 8 * i);
+    }
+
+    private static IOException unwrap(CompletionException e) {
+        return e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+    }
+
+    private final class Encoder extends OutputStream {
+        private final OutputStream                    out;
+        private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+        private final byte @Nullable []               nonce;
+        private       byte[]                          block    = new byte[blockSize];
+        private       int                             count;
+        private       int                             index;
+        private       boolean                         closed;
+
+        private Encoder(OutputStream out) throws IOException {
+            this.out = out;
+            if (key == null) nonce = null;
+            else {
+                nonce = new byte[NonceLength];
+                Random.nextBytes(nonce);
+                var frame = ByteBuffer.allocate(4 + NonceLength);
+                FrameCodec.Prefix.Fixed32.write(frame, NonceLength);
+                out.write(frame.put(nonce).array());
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            block[count++] = (byte) b;
+            if (count == blockSize) submit((byte) 0);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                var n = Math.min(len, blockSize - count);
+                System.arraycopy(b, off, block, count, n);
+                count += n;
+                off += n;
+                len -= n;
+                if (count == blockSize) submit((byte) 0);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (count > 0) submit((byte) 0);
+            drain(0);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                // encrypted streams always end with a marked block, and gzip streams have at least one member
+                if (count > 0 || nonce != null || index == 0) submit(Last);
+                drain(0);
+            } finally {
+                out.close();
+            }
+        }
+
+        private void submit(byte flags) throws IOException {
+            final var data   = block;
+            final var length = count;
+            final var number = index++;
+            block = new byte[blockSize];
+            count = 0;
+
+            pending.add(CompletableFuture.supplyAsync(ThrowingSupplier.sneaky(() -> nonce == null
+                                                                                  ? deflate(data, length, true)
+                                                                                  : seal(nonce, data, length, number, flags)),
+                    executor));
+            drain(parallelism);
+        }
+
+        private void drain(int limit) throws IOException {
+            while (pending.size() > limit) {
+                try {
+                    out.write(pending.poll().join());
+                } catch (CompletionException e) {
+                    throw unwrap(e);
+                }
+            }
+        }
+    }
+
+    private final class Decoder extends InputStream {
+        private final DataInputStream                 in;
+        private final byte[]                          nonce;
+        private final Deque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+        private final int                             maxFrameLength;
+        private       byte[]                          current  = new byte[0];
+        private       int                             position;
+        private       int                             index;
+        private       boolean                         ended;
+
+        private Decoder(InputStream in) throws IOException {
+            this.in             = new DataInputStream(in);
+            this.maxFrameLength = 1 + blockSize + (blockSize >> 3) + 1024 + TagLength;
+            if (this.in.readInt() != NonceLength)
+                throw new IOException("Not an encrypted block stream");
+            this.nonce = this.in.readNBytes(NonceLength);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? current[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (!fill()) return -1;
+            var n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return current.length - position;
+        }
+
+        @Override
+        public void close() throws IOException {
+            pending.forEach(future -> future.cancel(false));
+            pending.clear();
+            in.close();
+        }
+
+        private boolean fill() throws IOException {
+            while (position == current.length) {
+                readAhead();
+                if (pending.isEmpty()) return false;
+                try {
+                    current = pending.poll().join();
+                } catch (CompletionException e) {
+                    throw unwrap(e);
+                }
+                position = 0;
+            }
+            return true;
+        }
+
+        private void readAhead() throws IOException {
+            while (!ended && pending.size() < parallelism) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    throw new EOFException("Stream ended before its last block");
+                }
+                if (length < 1 + TagLength || length > maxFrameLength)
+                    throw new IOException("Invalid block length " + length);
+
+                final var flags  = in.readByte();
+                final var sealed = new byte[length - 1];
+                final var number = index++;
+                in.readFully(sealed);
+                ended = (flags & Last) != 0;
+                pending.add(CompletableFuture.supplyAsync(ThrowingSupplier.sneaky(() -> open(nonce, sealed, number, flags)), executor));
+            }
+        }
+    }
+}
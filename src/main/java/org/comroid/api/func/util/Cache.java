@@ -1,6 +1,5 @@
 package org.comroid.api.func.util;
 
-import lombok.Data;
 import org.comroid.api.Polyfill;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -11,7 +10,10 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
-@Data
+/**
+ * Process-wide memoization of values that live as long as the application.
+ * For a bounded or expiring cache, see {@link org.comroid.api.map.Cache}.
+ */
 public final class Cache<K, V> {
     private static final Map<Object, Object> cache = new ConcurrentHashMap<>();
 
@@ -30,4 +32,21 @@ public final class Cache<K, V> {
     }
 
     private final Duration timeout;
+
+    /**
+     * @deprecated Instances never used their timeout; use the static methods, or {@link org.comroid.api.map.Cache}
+     * for expiring entries
+     */
+    @Deprecated
+    public Cache(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * @deprecated See {@link #Cache(Duration)}
+     */
+    @Deprecated
+    public Duration getTimeout() {
+        return timeout;
+    }
 }
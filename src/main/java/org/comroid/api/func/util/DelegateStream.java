@@ -56,6 +56,15 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.net.Socket;
 import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -63,12 +72,16 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -111,6 +124,19 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         return new String(in.readAllBytes());
     }
 
+    /**
+     * Pumps {@code in} into {@code out} on a virtual thread until {@code in} ends.
+     * Streams cannot be multiplexed, so a blocked read holds its virtual thread; reads on process pipes and files also
+     * hold a carrier thread each while they block.
+     */
+    static Transfer redirect(final InputStream in, final OutputStream out) {
+        return transfer(in, out, Transfer.Pump);
+    }
+
+    /**
+     * @deprecated the returned task never ends and cannot report its progress; use {@link #transfer(InputStream, OutputStream, Executor)}
+     */
+    @Deprecated
     static BackgroundTask<?> redirect(final InputStream in, final OutputStream out, Executor executor) {
         return BackgroundTask.builder()
                 .executor(executor)
@@ -120,6 +146,22 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 .activate();
     }
 
+    /**
+     * Pumps {@code in} into {@code out} on {@code executor} until {@code in} ends.
+     */
+    static Transfer transfer(final InputStream in, final OutputStream out, Executor executor) {
+        return Transfer.start(in, out, executor);
+    }
+
+    /**
+     * Pumps {@code in} into {@code out} through a direct buffer until {@code in} ends.
+     * Selectable sources like sockets and {@link java.nio.channels.Pipe} share one selector thread while they wait for
+     * data, and only occupy a virtual thread while they are readable.
+     */
+    static Transfer redirect(final ReadableByteChannel in, final WritableByteChannel out) {
+        return Transfer.start(in, out, Transfer.Pump);
+    }
+
     static Input wrap(final InputStream stream) {
         return wrap(stream, Log.get());
     }
@@ -141,6 +183,25 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 }
             }
 
+            @Override
+            public int read(byte @NotNull [] b, int off, int len) {
+                try {
+                    return delegate.read(b, off, len);
+                } catch (Throwable t) {
+                    log.log(Level.SEVERE, "Could not read from " + delegate, t);
+                    return -1;
+                }
+            }
+
+            @Override
+            public int available() {
+                try {
+                    return delegate.available();
+                } catch (Throwable t) {
+                    return 0;
+                }
+            }
+
             @Override
             public void close() {
                 try {
@@ -173,6 +234,15 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 }
             }
 
+            @Override
+            public void write(byte @NotNull [] b, int off, int len) {
+                try {
+                    delegate.write(b, off, len);
+                } catch (Throwable t) {
+                    log.log(Level.SEVERE, "Could not write to " + delegate, t);
+                }
+            }
+
             @Override
             public void flush() {
                 try {
@@ -268,6 +338,20 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         });
     }
 
+    /**
+     * Decodes blocks of a {@link BlockPipeline} in parallel.
+     */
+    default Input decode(final BlockPipeline pipeline) {
+        return input().ifPresentMap(sneaky(is -> new Input(pipeline.decoder(is))));
+    }
+
+    /**
+     * Compresses and encrypts blocks of a {@link BlockPipeline} in parallel.
+     */
+    default Output encode(final BlockPipeline pipeline) {
+        return output().ifPresentMap(sneaky(out -> new Output(pipeline.encoder(out))));
+    }
+
     default Input decrypt(final Cipher cipher) {
         return input().ifPresentMap(is -> new Input(new CipherInputStream(is, cipher)));
     }
@@ -327,6 +411,10 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         @lombok.experimental.Delegate(excludes = SelfCloseable.class)
         Container.Delegate<Input> container = new Delegate<>(this);
         ThrowingIntSupplier<IOException> read;
+        /**
+         * The byte source for bulk reads, if there is one; other sources are read one char at a time.
+         */
+        @Getter(AccessLevel.NONE) @Nullable InputStream source;
         @Nullable     AutoCloseable delegate;
         private final AtomicInteger buffer = new AtomicInteger(-1);
         @NonFinal
@@ -340,12 +428,14 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
 
         public Input(final InputStream delegate) {
             this.read = delegate::read;
+            this.source = delegate;
             this.delegate = delegate;
             this.name = "Proxy InputStream @ " + caller(1);
         }
 
         public Input(final Reader delegate) {
             this.read = delegate::read;
+            this.source = null;
             this.delegate = delegate;
             this.name = "Reader delegating InputStream @ " + caller(1);
         }
@@ -363,6 +453,7 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         @ApiStatus.Experimental
         public Input(final Event.Bus<String> source, final @NotNull EndlMode endlMode, String key) {
             this.endlMode = endlMode;
+            this.source = null;
             class EventBusHandler
                     extends Container.Base
                     implements Consumer<Event<String>>, ThrowingIntSupplier<IOException> {
@@ -588,6 +679,26 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
             }
         }
 
+        @Override
+        public int read(byte @NotNull [] b, int off, int len) {
+            if (source == null || buffer.get() != -1) return readEach(b, off, len);
+            try {
+                return source.read(b, off, len);
+            } catch (Throwable t) {
+                log.log(Level.SEVERE, "Could not read from " + this, t);
+                return -1;
+            }
+        }
+
+        @Override
+        public int available() {
+            try {
+                return source == null ? 0 : source.available();
+            } catch (Throwable t) {
+                return 0;
+            }
+        }
+
         @Override
         @SneakyThrows
         public void close() {
@@ -607,6 +718,18 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
             return getName();
         }
 
+        /**
+         * Fills the array through {@link #read()}, stopping early where it returns {@code -1}.
+         */
+        protected int readEach(byte @NotNull [] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) return 0;
+            int c = 0, r;
+            while (c < len && (r = read()) != -1)
+                b[off + c++] = (byte) r;
+            return c == 0 ? -1 : c;
+        }
+
         private class EndlDelimitedAdapter extends DelimitedInputAdapter<String, StringReader, StringWriter> {
             private EndlDelimitedAdapter(InputStream delegate) {
                 super(delegate);
@@ -652,6 +775,19 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 return r;
             }
 
+            /**
+             * Reads until the end of the current delimited buffer, which is signalled like the end of the stream.
+             */
+            @Override
+            public synchronized int read(byte @NotNull [] b, int off, int len) {
+                return readEach(b, off, len);
+            }
+
+            @Override
+            public int available() {
+                return 0;
+            }
+
             @Override
             @SneakyThrows
             public void closeSelf() {
@@ -738,6 +874,10 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         Container.Delegate<Output> container = new Delegate<>(this);
         ThrowingIntConsumer<IOException> write;
         ThrowingRunnable<IOException>    flush;
+        /**
+         * The byte sink for bulk writes, if there is one; other sinks are written one char at a time.
+         */
+        @Getter(AccessLevel.NONE) @Nullable OutputStream sink;
         @Nullable AutoCloseable delegate;
         @NonFinal
         @Setter
@@ -750,6 +890,7 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         public Output(final OutputStream delegate) {
             this.write = delegate::write;
             this.flush = delegate::flush;
+            this.sink  = delegate;
             this.delegate = delegate;
             this.name  = "Proxy OutputStream @ " + caller(1);
         }
@@ -757,6 +898,7 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         public Output(final Writer delegate) {
             this.write = delegate::write;
             this.flush = delegate::flush;
+            this.sink  = null;
             this.delegate = delegate;
             this.name  = "Writer delegating OutputStream @ " + caller(1);
         }
@@ -768,6 +910,7 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 log.log(level, buf.toString());
                 return new StringWriter();
             });
+            this.sink  = null;
             this.delegate = null;
             this.name  = "Log delegating OutputStream @ " + caller(1);
         }
@@ -779,6 +922,17 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 handler.accept(buf.toByteArray());
                 return new ByteArrayOutputStream(bufferSize);
             });
+            this.sink  = new OutputStream() {
+                @Override
+                public void write(int b) {
+                    writer.get().write(b);
+                }
+
+                @Override
+                public void write(byte @NotNull [] b, int off, int len) {
+                    writer.get().write(b, off, len);
+                }
+            };
             this.delegate = handler instanceof AutoCloseable ? (AutoCloseable) handler : null;
             this.name  = lessSimpleName(handler.getClass()) + " OutputStream @ " + caller(1);
         }
@@ -790,6 +944,7 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 handler.accept(buf.toString());
                 return new StringWriter();
             });
+            this.sink  = null;
             this.delegate = handler instanceof AutoCloseable ? (AutoCloseable) handler : null;
             this.name  = lessSimpleName(handler.getClass()) + " OutputStream @ " + caller(1);
         }
@@ -806,6 +961,7 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                 bus.publish(key, buf.toString());
                 return new StringWriter();
             });
+            this.sink  = null;
             this.delegate = bus;
             this.name  = lessSimpleName(bus.getClass()) + " OutputStream @ " + caller(1);
         }
@@ -819,29 +975,46 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                         .forEachOrdered(adapter::apply);
                 return new StringWriter();
             });
+            this.sink  = null;
             this.delegate = adapter;
             this.name  = "Pipeline OutputStream @ " + caller(1);
         }
 
         private Output(@NotNull final SegmentAdapter adapter, final int length) {
-            final var buffer = new AtomicReference<>(new byte[length]);
-            final var cursor = new AtomicInteger(0);
-            this.write = c -> {
-                var b = (byte) c;
-                buffer.updateAndGet(data -> {
-                    if (cursor.get() < data.length)
-                        data[cursor.getAndIncrement()] = b;
-                    else {
-                        data = adapter.apply(data);
-                        if (data != null)
-                            adapter.accept(data);
-                        cursor.set(0);
+            final var segments = new OutputStream() {
+                private byte[] data = new byte[length];
+                private int    cursor;
+
+                @Override
+                public synchronized void write(int b) {
+                    data[cursor++] = (byte) b;
+                    if (cursor == length) emit();
+                }
+
+                @Override
+                public synchronized void write(byte @NotNull [] b, int off, int len) {
+                    while (len > 0) {
+                        var n = Math.min(len, length - cursor);
+                        System.arraycopy(b, off, data, cursor, n);
+                        cursor += n;
+                        off += n;
+                        len -= n;
+                        if (cursor == length) emit();
                     }
-                    return Optional.ofNullable(data).orElseGet(() -> new byte[length]);
-                });
+                }
+
+                private void emit() {
+                    var segment = adapter.apply(data);
+                    if (segment != null)
+                        adapter.accept(segment);
+                    data   = new byte[length];
+                    cursor = 0;
+                }
             };
+            this.write = segments::write;
             this.flush = () -> {
             };
+            this.sink  = segments;
             this.delegate = adapter;
             this.name  = "Segmented OutputStream @ " + caller(1);
         }
@@ -925,6 +1098,11 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         }
 
         //region Packet Converter
+
+        /**
+         * @deprecated Use {@link FrameCodec}
+         */
+        @Deprecated
         @ApiStatus.Experimental
         public <H, B> Packet<H, B> packet(
                 int headLength,
@@ -950,6 +1128,33 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
             }
         }
 
+        /**
+         * Writes through to the sink in one piece; with {@code autoFlush}, it is still flushed after every newline.
+         */
+        @Override
+        public void write(byte @NotNull [] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (sink == null) {
+                for (var i = off; i < off + len; i++)
+                    write(b[i] & 0xFF);
+                return;
+            }
+            try {
+                var end = off + len;
+                if (autoFlush)
+                    for (var i = off; i < end; i++)
+                        if (b[i] == '\n') {
+                            sink.write(b, off, i + 1 - off);
+                            flush();
+                            off = i + 1;
+                        }
+                if (off < end)
+                    sink.write(b, off, end - off);
+            } catch (Throwable t) {
+                log.log(Level.SEVERE, "Could not write to " + this, t);
+            }
+        }
+
         @Override
         public void flush() {
             try {
@@ -1020,7 +1225,11 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         }
     }
 
+    /**
+     * @deprecated Use {@link FrameCodec}
+     */
     @Value
+    @Deprecated
     @EqualsAndHashCode(callSuper = true)
     class Packet<H, B> extends ByteArrayOutputStream {
         Event.Bus<Packet<H, B>.Pair> bus  = new Event.Bus<>();
@@ -1082,6 +1291,199 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         }
     }
 
+    /**
+     * A running redirect from a source into a sink.
+     * It ends when the source reaches EOF or the transfer is closed, and it counts the bytes it moved.
+     * <p>
+     * Selectable sources wait for data on one shared selector thread and are only pumped on a virtual thread while they
+     * are readable. Any other source is read by a blocking loop, which holds its thread for as long as the transfer runs.
+     */
+    @lombok.extern.java.Log
+    @Getter
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    class Transfer implements UncheckedCloseable, Named {
+        public static final  int      BufferSize = 16 << 10;
+        private static final Executor Pump       = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name("redirect-", 0)
+                .factory());
+
+        private static Transfer start(InputStream in, OutputStream out, Executor executor) {
+            var buffer   = new byte[BufferSize];
+            var transfer = new Transfer(in);
+            executor.execute(() -> transfer.pump(() -> {
+                var n = in.read(buffer);
+                if (n > 0) {
+                    out.write(buffer, 0, n);
+                    // most sinks are line based and buffer until they are flushed
+                    if (in.available() == 0) out.flush();
+                } else if (n == -1) out.flush();
+                return n;
+            }));
+            return transfer;
+        }
+
+        @SneakyThrows
+        private static Transfer start(ReadableByteChannel in, WritableByteChannel out, Executor executor) {
+            var buffer = ByteBuffer.allocateDirect(BufferSize);
+            ThrowingIntSupplier<IOException> step = () -> {
+                var n = in.read(buffer);
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    out.write(buffer);
+                buffer.clear();
+                return n;
+            };
+            var transfer = new Transfer(in);
+            if (in instanceof SelectableChannel selectable) {
+                selectable.configureBlocking(false);
+                Multiplexer.Instance.register(transfer, selectable, key -> executor.execute(() -> transfer.pump(key, step)));
+            } else executor.execute(() -> transfer.pump(step));
+            return transfer;
+        }
+
+        String                  name;
+        Instant                 started = Instant.now();
+        AtomicLong              bytes   = new AtomicLong();
+        CompletableFuture<Long> done    = new CompletableFuture<>();
+        @Getter(AccessLevel.NONE)
+        Closeable               source;
+        @NonFinal
+        @Getter(AccessLevel.NONE)
+        volatile boolean closed;
+
+        private Transfer(Closeable source) {
+            this.name   = "Transfer from " + source + " @ " + caller(2);
+            this.source = source;
+        }
+
+        public long getBytes() {
+            return bytes.get();
+        }
+
+        /**
+         * @return the average throughput since the transfer started, up to when it ended
+         */
+        public double getBytesPerSecond() {
+            var millis = Duration.between(started, Instant.now()).toMillis();
+            return bytes.get() * 1000d / Math.max(1, millis);
+        }
+
+        public boolean isDone() {
+            return done.isDone();
+        }
+
+        /**
+         * Stops the transfer by closing its source.
+         */
+        @Override
+        public void close() {
+            closed = true;
+            try {
+                source.close();
+            } catch (IOException e) {
+                log.log(Level.FINE, "Could not close " + source, e);
+            }
+            // closing deregisters a waiting selectable source, so no pump would ever notice
+            if (source instanceof SelectableChannel) done.complete(bytes.get());
+        }
+
+        @Override
+        public String toString() {
+            return "%s (%,d bytes, %,.0f B/s%s)".formatted(name, bytes.get(), getBytesPerSecond(), isDone() ? ", done" : "");
+        }
+
+        private void pump(ThrowingIntSupplier<IOException> step) {
+            try {
+                int n;
+                while (!closed && (n = step.getAsInt()) != -1)
+                    bytes.addAndGet(n);
+                done.complete(bytes.get());
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        private void pump(SelectionKey key, ThrowingIntSupplier<IOException> step) {
+            try {
+                var n = 0;
+                while (!closed && (n = step.getAsInt()) > 0)
+                    bytes.addAndGet(n);
+                if (closed || n == -1) {
+                    key.cancel();
+                    done.complete(bytes.get());
+                } else {
+                    // drained for now, wait for more data
+                    key.interestOps(SelectionKey.OP_READ);
+                    key.selector().wakeup();
+                }
+            } catch (Throwable t) {
+                key.cancel();
+                fail(t);
+            }
+        }
+
+        private void fail(Throwable t) {
+            if (closed) done.complete(bytes.get());
+            else {
+                log.log(Level.WARNING, "Transfer failed: " + this, t);
+                done.completeExceptionally(t);
+            }
+        }
+
+        /**
+         * Waits for all selectable sources on one platform thread and hands each readable source to its transfer.
+         */
+        private static final class Multiplexer implements Runnable {
+            private static final Multiplexer Instance = new Multiplexer();
+
+            private final Selector        selector      = open();
+            private final Queue<Runnable> registrations = new ConcurrentLinkedQueue<>();
+
+            private Multiplexer() {
+                Thread.ofPlatform().name("redirect-selector").daemon().start(this);
+            }
+
+            @SneakyThrows
+            private static Selector open() {
+                return Selector.open();
+            }
+
+            private void register(Transfer transfer, SelectableChannel channel, Consumer<SelectionKey> onReadable) {
+                registrations.add(() -> {
+                    try {
+                        channel.register(selector, SelectionKey.OP_READ, onReadable);
+                    } catch (ClosedChannelException e) {
+                        transfer.done.complete(transfer.bytes.get());
+                    }
+                });
+                selector.wakeup();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void run() {
+                //noinspection InfiniteLoopStatement
+                while (true) {
+                    try {
+                        selector.select();
+                        Runnable registration;
+                        while ((registration = registrations.poll()) != null)
+                            registration.run();
+                        for (var key : selector.selectedKeys()) {
+                            if (!key.isValid()) continue;
+                            // the transfer re-arms its key once it has drained the source
+                            key.interestOps(0);
+                            ((Consumer<SelectionKey>) key.attachment()).accept(key);
+                        }
+                        selector.selectedKeys().clear();
+                    } catch (Throwable t) {
+                        log.log(Level.WARNING, "Redirect selector failed", t);
+                    }
+                }
+            }
+        }
+    }
+
     @lombok.extern.java.Log
     @Getter
     @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
@@ -1093,6 +1495,7 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
         public static final IO     NULL           = new IO(new ByteArrayInputStream(new byte[0]), StreamUtil.voidOutputStream(),
                 StreamUtil.voidOutputStream());
         public static final IO     SYSTEM         = new IO(System.in, System.out, System.err).setDoNotCloseCapabilities(7);
+        public static final long   ProcessDrainTimeoutMs = 1000;
 
         @SneakyThrows
         public static IO execute(String... cmd) {
@@ -1105,16 +1508,20 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
             return process(exec);
         }
 
+        /**
+         * Redirects the output of the process; the IO is closed once the process exited and its output was drained.
+         */
         @SneakyThrows
         public static IO process(Process process) {
-            var io = new IO(Capability.Output, Capability.Error);
-            var executor = Executors.newFixedThreadPool(2);
-            io.addChildren(
-                    (Closeable) process::destroy,
-                    (Closeable) executor::shutdown,
-                    DelegateStream.redirect(process.getInputStream(), io.output, executor),
-                    DelegateStream.redirect(process.getErrorStream(), io.error, executor));
-            process.onExit().thenRun(io::close);
+            var io  = new IO(Capability.Output, Capability.Error);
+            var out = DelegateStream.redirect(process.getInputStream(), io.output);
+            var err = DelegateStream.redirect(process.getErrorStream(), io.error);
+            io.addChildren((Closeable) process::destroy, out, err);
+            process.onExit()
+                    // a child of the process may keep the pipes open
+                    .thenCompose($ -> CompletableFuture.allOf(out.getDone(), err.getDone())
+                            .completeOnTimeout(null, ProcessDrainTimeoutMs, TimeUnit.MILLISECONDS))
+                    .whenComplete(($, t) -> io.close());
             return io;
         }
 
@@ -1123,10 +1530,8 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
             if (output != null) cap.add(Capability.Output);
             if (error != null) cap.add(Capability.Error);
             var io = new IO(cap.toArray(Capability[]::new));
-            final Executor executor;
-            io.addChildren((executor = Executors.newFixedThreadPool(cap.size())));
-            if (output != null) io.addChildren(DelegateStream.redirect(output, io.output, executor));
-            if (error != null) io.addChildren(DelegateStream.redirect(error, io.error, executor));
+            if (output != null) io.addChildren(DelegateStream.redirect(output, io.output));
+            if (error != null) io.addChildren(DelegateStream.redirect(error, io.error));
             return io;
         }
 
@@ -1324,6 +1729,13 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
             return redirectToEventBus(bus, inputKey, EventKey_Output, EventKey_Error);
         }
 
+        /**
+         * @return the transfers that pump into this IO, e.g. from a {@linkplain #process(Process) process}
+         */
+        public Stream<Transfer> transfers() {
+            return streamChildren(Transfer.class);
+        }
+
         @SneakyThrows
         public IO redirectToSocket(Socket socket) {
             return redirect(socket.getInputStream(), socket.getOutputStream());
@@ -1365,6 +1777,10 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
             );
         }
 
+        public IO usePipeline(final @NotNull BlockPipeline pipeline) {
+            return rewire(sneaky(pipeline::decoder), sneaky(pipeline::encoder), sneaky(pipeline::encoder));
+        }
+
         public IO redirectErr(@Nullable OutputStream err) {
             return redirect(null, null, err);
         }
@@ -1566,6 +1982,17 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                             return -1;
                         }
                     }
+
+                    @Override
+                    @Synchronized("monitor")
+                    public int read(byte @NotNull [] b, int off, int len) {
+                        try {
+                            return runOnInput(in -> in.read(b, off, len));
+                        } catch (Throwable t) {
+                            log.log(Level.SEVERE, "Error reading from InputStream", t);
+                            return -1;
+                        }
+                    }
                 });
             }
 
@@ -1599,6 +2026,16 @@ public interface DelegateStream extends Container, SelfCloseable, Named, Convert
                         }
                     }
 
+                    @Override
+                    @Synchronized("monitor")
+                    public void write(final byte @NotNull [] b, final int off, final int len) {
+                        try {
+                            runOnOutput(capability, s -> s.write(b, off, len));
+                        } catch (Throwable t) {
+                            log.log(Level.SEVERE, "Error writing to Output", t);
+                        }
+                    }
+
                     @Override
                     @Synchronized("monitor")
                     public void flush() {
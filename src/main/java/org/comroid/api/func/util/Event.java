@@ -34,10 +34,14 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Queue;
@@ -166,24 +170,51 @@ public class Event<T> implements Wrap<T> {
         @lombok.experimental.Delegate Predicate<Event<T>>     requirement;
         @lombok.experimental.Delegate Consumer<Event<T>>      action;
         String location;
-        @NonFinal @Setter           int     priority = 0;
+        @Getter(AccessLevel.NONE) @Nullable String routeKey;
+        @Getter(AccessLevel.NONE) @Nullable Long   routeFlag;
+        @NonFinal                   int     priority = 0;
         @NonFinal @Setter @Nullable String  name;
         @NonFinal                   boolean active   = true;
 
-        private Listener(@Nullable String key, @NotNull Bus<T> bus, Predicate<Event<T>> requirement, Consumer<Event<T>> action) {
+        private Listener(
+                @Nullable String key, @Nullable Long flag, @NotNull Bus<T> bus, Predicate<Event<T>> requirement,
+                Consumer<Event<T>> action
+        ) {
             this.name        = key;
+            this.routeKey    = key;
+            this.routeFlag   = flag;
             this.bus         = bus;
             this.requirement = requirement;
             this.action      = action;
             this.location    = caller(2);
         }
 
+        /**
+         * @return the event keys this listener can possibly accept, or {@code null} if it must see every event
+         */
+        protected @Nullable Set<String> routingKeys() {
+            return routeKey == null || Subscriber.EmptyName.equals(routeKey) ? null : Set.of(routeKey);
+        }
+
+        /**
+         * Cheap pre-check on the event flag, evaluated before the {@linkplain #getRequirement() requirement}
+         *
+         * @return whether an event with the given flag could be accepted by this listener
+         */
+        protected boolean acceptsFlag(@Nullable Long flag) {
+            return routeFlag == null || routeFlag == Subscriber.DefaultFlag || routeFlag.equals(flag);
+        }
+
+        public Listener<T> setPriority(int priority) {
+            this.priority = priority;
+            bus.rebuildDispatchTable();
+            return this;
+        }
+
         @Override
         public void closeSelf() {
             active = false;
-            synchronized (bus.listeners) {
-                bus.listeners.remove(this);
-            }
+            bus.removeListener(this);
         }
 
         @Override
@@ -200,6 +231,8 @@ public class Event<T> implements Wrap<T> {
         @Nullable private Event.Bus<?>                                    upstream;
         @NotNull          Set<Bus<?>>                                     downstream = new HashSet<>();
         @NotNull          Queue<Listener<T>>                              listeners  = new ConcurrentLinkedQueue<>();
+        @Getter(AccessLevel.NONE)
+        private volatile  DispatchTable<T>                                dispatchTable = DispatchTable.of(List.of());
         @Nullable private Function<@NotNull Event<?>, @Nullable Event<T>> function;
         @Nullable private Function<String, String>                        keyFunction;
         @Setter private   Factory<T, ? extends Event<T>>                  factory    = child(Factory.class).<Factory<T, ? extends Event<T>>>castRef()
@@ -289,7 +322,7 @@ public class Event<T> implements Wrap<T> {
                         var attribute = it.getAnnotation(Subscriber.class);
 
                         Invocable<?> delegate;
-                        if (it instanceof Method method) delegate = Invocable.ofMethodCall(target, method);
+                        if (it instanceof Method method) delegate = Invocable.ofMethodHandle(target, method);
                         else if (it instanceof Field field) {
                             Collection<DataNode> dest = ReflectionHelper.forceGetField(target, field);
                             delegate = Invocable.ofConsumer(attribute.type(), dest::add);
@@ -302,9 +335,7 @@ public class Event<T> implements Wrap<T> {
 
             if (subscribers.isEmpty()) return null;
             var listener = new SubscriberListener(target, subscribers);
-            synchronized (listeners) {
-                listeners.add(listener);
-            }
+            addListener(listener);
             return listener;
         }
 
@@ -443,11 +474,30 @@ public class Event<T> implements Wrap<T> {
         }
 
         private void publish(Event<T> event) {
+            // the table is replaced on every change, so walking our own reference needs no lock
+            for (var listener : dispatchTable.candidates(event.getKey())) {
+                if (event.isCancelled()) break;
+                if (listener.isActive() && listener.acceptsFlag(event.getFlag()) && listener.test(event))
+                    listener.accept(event);
+            }
+        }
+
+        private void addListener(Listener<T> listener) {
             synchronized (listeners) {
-                //Collections.sort(listeners, Listener.Comparator);
-                listeners.stream().sorted(Listener.Comparator).forEach(listener -> {
-                    if (listener.isActive() && !event.isCancelled() && listener.test(event)) listener.accept(event);
-                });
+                listeners.add(listener);
+                rebuildDispatchTable();
+            }
+        }
+
+        private void removeListener(Listener<?> listener) {
+            synchronized (listeners) {
+                if (listeners.remove(listener)) rebuildDispatchTable();
+            }
+        }
+
+        private void rebuildDispatchTable() {
+            synchronized (listeners) {
+                dispatchTable = DispatchTable.of(listeners);
             }
         }
 
@@ -472,6 +522,18 @@ public class Event<T> implements Wrap<T> {
                         key) && (Objects.isNull(event.key) || Subscriber.EmptyName.equals(event.key))));
             }
 
+            /**
+             * @return the event keys this subscriber accepts; {@code "null"} stands for events without a key
+             */
+            public Set<String> keys() {
+                if (!"null".equals(key)) return Set.of(key);
+                var keys = new HashSet<String>();
+                keys.add(key);
+                keys.add(null);
+                keys.add(Subscriber.EmptyName);
+                return keys;
+            }
+
             public boolean testFlag(long x) {
                 var y = flag;
                 switch (mode) {
@@ -496,20 +558,106 @@ public class Event<T> implements Wrap<T> {
         private class SubscriberListener extends Listener<T> {
             @Nullable Object target;
             Collection<SubscriberImpl> subscribers;
+            @Getter(AccessLevel.NONE) Map<String, SubscriberImpl[]> byKey;
+            @Getter(AccessLevel.NONE) long   anyBits;
+            @Getter(AccessLevel.NONE) long   notBits;
+            @Getter(AccessLevel.NONE) long[] numeric;
 
             public SubscriberListener(@Nullable Object target, Collection<SubscriberImpl> subscribers) {
-                super(null, Bus.this, $ -> true, $ -> {});
+                super(null, null, Bus.this, $ -> true, $ -> {});
                 this.target      = target;
                 this.subscribers = subscribers;
+
+                var byKey   = new HashMap<String, List<SubscriberImpl>>();
+                var anyBits = 0L;
+                var notBits = -1L;
+                var numeric = new ArrayList<Long>();
+                for (var subscriber : subscribers) {
+                    for (var key : subscriber.keys())
+                        byKey.computeIfAbsent(key, $ -> new ArrayList<>()).add(subscriber);
+                    switch (subscriber.mode) {
+                        case Numeric -> numeric.add(subscriber.flag);
+                        case BitwiseOr -> anyBits |= subscriber.flag;
+                        case BitwiseNot -> notBits &= subscriber.flag;
+                    }
+                }
+                this.byKey   = new HashMap<>();
+                byKey.forEach((key, list) -> this.byKey.put(key, list.toArray(SubscriberImpl[]::new)));
+                this.anyBits = anyBits;
+                this.notBits = notBits;
+                this.numeric = numeric.stream().mapToLong(Long::longValue).toArray();
+            }
+
+            @Override
+            protected Set<String> routingKeys() {
+                return byKey.keySet();
+            }
+
+            @Override
+            protected boolean acceptsFlag(@Nullable Long flag) {
+                // aggregated masks: any BitwiseOr subscriber shares a bit, or any BitwiseNot subscriber misses one
+                var x = flag == null ? Subscriber.DefaultFlag : flag;
+                if ((x & anyBits) != 0 || (x & ~notBits) != 0) return true;
+                for (var y : numeric)
+                    if (x == y) return true;
+                return false;
             }
 
             @Override
             public void accept(Event<T> event) {
-                for (var subscriber : subscribers)
+                var candidates = byKey.get(event.getKey());
+                if (candidates == null) return;
+                for (var subscriber : candidates)
                     if (subscriber.test(event)) subscriber.accept(target, event);
             }
         }
 
+        /**
+         * Immutable routing snapshot of a bus' listeners.
+         * Listeners that only accept specific keys are indexed by those keys, everything else is kept in a fallback list
+         * that is merged into every key bucket, so that each bucket is already in priority order.
+         */
+        private static final class DispatchTable<T> {
+            private final Listener<T>[]              fallback;
+            private final Map<String, Listener<T>[]> byKey;
+
+            private DispatchTable(Listener<T>[] fallback, Map<String, Listener<T>[]> byKey) {
+                this.fallback = fallback;
+                this.byKey    = byKey;
+            }
+
+            private static <T> DispatchTable<T> of(Collection<Listener<T>> listeners) {
+                Listener<T>[] all = uncheckedCast(listeners.toArray(new Listener[0]));
+                Arrays.sort(all, Listener.Comparator);
+
+                var fallback = new ArrayList<Integer>();
+                var keyed    = new HashMap<String, List<Integer>>();
+                for (var i = 0; i < all.length; i++) {
+                    var keys = all[i].routingKeys();
+                    if (keys == null) fallback.add(i);
+                    else for (var key : keys)
+                        keyed.computeIfAbsent(key, $ -> new ArrayList<>()).add(i);
+                }
+
+                var byKey = new HashMap<String, Listener<T>[]>();
+                keyed.forEach((key, indices) -> byKey.put(key, merge(all, indices, fallback)));
+                return new DispatchTable<>(merge(all, List.of(), fallback), byKey);
+            }
+
+            private static <T> Listener<T>[] merge(Listener<T>[] all, List<Integer> a, List<Integer> b) {
+                Listener<T>[] yield = uncheckedCast(new Listener[a.size() + b.size()]);
+                int           i     = 0, j = 0, k = 0;
+                while (i < a.size() || j < b.size())
+                    yield[k++] = all[j >= b.size() || (i < a.size() && a.get(i) < b.get(j)) ? a.get(i++) : b.get(j++)];
+                return yield;
+            }
+
+            private Listener<T>[] candidates(@Nullable String key) {
+                var routed = byKey.get(key);
+                return routed == null ? fallback : routed;
+            }
+        }
+
         @Data
         public static final class Filter<T> {
             @NotNull  Event.Bus<T>        bus;
@@ -524,10 +672,8 @@ public class Event<T> implements Wrap<T> {
             }
 
             public Listener<T> subscribe(final @NotNull Consumer<Event<T>> action) {
-                var listener = new Listener<>(key, bus, filters(), action);
-                synchronized (bus.listeners) {
-                    bus.listeners.add(listener);
-                }
+                var listener = new Listener<>(key, flag, bus, filters(), action);
+                bus.addListener(listener);
                 return listener;
             }
 
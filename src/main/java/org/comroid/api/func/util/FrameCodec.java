@@ -0,0 +1,330 @@
+package org.comroid.api.func.util;
+
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.SneakyThrows;
+import lombok.ToString;
+import lombok.Value;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Length-prefixed framing for byte streams and channels.
+ * <p>
+ * Decoded frames are passed to their handler as read-only views of the read buffers; a frame is only valid until the
+ * handler returns and must be copied if it is kept.
+ */
+@Value
+@Builder
+public class FrameCodec {
+    public static final int DefaultMaxFrameLength = 16 << 20;
+    public static final int ReadBufferSize        = 16 << 10;
+
+    @lombok.Builder.Default Prefix     prefix         = Prefix.Varint;
+    @lombok.Builder.Default int        maxFrameLength = DefaultMaxFrameLength;
+    @lombok.Builder.Default @ToString.Exclude @EqualsAndHashCode.Exclude
+    BufferPool pool = BufferPool.Shared;
+
+    public Decoder decoder(Consumer<ByteBuffer> handler) {
+        return new Decoder(handler);
+    }
+
+    /**
+     * Decodes into a bounded queue; reading blocks while the queue is full.
+     */
+    public Decoder decoder(BlockingQueue<ByteBuffer> queue) {
+        return new Decoder(frame -> enqueue(queue, frame));
+    }
+
+    public void encode(ByteBuffer payload, WritableByteChannel out) throws IOException {
+        var header = header(payload.remaining());
+        if (out instanceof GatheringByteChannel gathering) {
+            var buffers = new ByteBuffer[]{ header, payload };
+            while (payload.hasRemaining() || header.hasRemaining())
+                gathering.write(buffers);
+        } else {
+            while (header.hasRemaining()) out.write(header);
+            while (payload.hasRemaining()) out.write(payload);
+        }
+    }
+
+    public void encode(byte[] payload, OutputStream out) throws IOException {
+        encode(payload, 0, payload.length, out);
+    }
+
+    public void encode(byte[] payload, int offset, int length, OutputStream out) throws IOException {
+        var header = header(length);
+        out.write(header.array(), 0, header.limit());
+        out.write(payload, offset, length);
+    }
+
+    private ByteBuffer header(int length) throws IOException {
+        check(length);
+        var header = ByteBuffer.allocate(Prefix.MaxLength);
+        prefix.write(header, length);
+        return header.flip();
+    }
+
+    private void check(int length) throws IOException {
+        if (length > maxFrameLength)
+            throw new IOException("Frame of %d bytes exceeds maximum of %d bytes".formatted(length, maxFrameLength));
+    }
+
+    @SneakyThrows
+    private static void enqueue(BlockingQueue<ByteBuffer> queue, ByteBuffer frame) {
+        var copy = ByteBuffer.allocate(frame.remaining()).put(frame).flip();
+        try {
+            queue.put(copy);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for queue capacity");
+        }
+    }
+
+    public enum Prefix {
+        /**
+         * 4 bytes, big endian
+         */
+        Fixed32 {
+            @Override
+            public void write(ByteBuffer out, int length) {
+                out.putInt(length);
+            }
+
+            @Override
+            public int read(ByteBuffer in) throws IOException {
+                if (in.remaining() < 4) return -1;
+                var length = in.getInt();
+                if (length < 0) throw new IOException("Negative frame length " + length);
+                return length;
+            }
+        },
+        /**
+         * 1 to 5 bytes, unsigned LEB128
+         */
+        Varint {
+            @Override
+            public void write(ByteBuffer out, int length) {
+                while ((length & ~0x7F) != 0) {
+                    out.put((byte) (length & 0x7F | 0x80));
+                    length >>>= 7;
+                }
+                out.put((byte) length);
+            }
+
+            @Override
+            public int read(ByteBuffer in) throws IOException {
+                var position = in.position();
+                var length   = 0;
+                for (var i = 0; i < MaxLength; i++) {
+                    if (position + i >= in.limit()) return -1;
+                    var b = in.get(position + i);
+                    length |= (b & 0x7F) << 7 * i;
+                    if ((b & 0x80) == 0) {
+                        if (i == MaxLength - 1 && (b & 0x78) != 0) throw new IOException("Frame length out of range");
+                        in.position(position + i + 1);
+                        return length;
+                    }
+                }
+                throw new IOException("Malformed varint frame length");
+            }
+        };
+
+        public static final int MaxLength = 5;
+
+        public abstract void write(ByteBuffer out, int length);
+
+        /**
+         * @return the frame length, or {@code -1} without consuming anything if the prefix is incomplete
+         */
+        public abstract int read(ByteBuffer in) throws IOException;
+    }
+
+    /**
+     * Decodes the frames of one stream; not thread-safe.
+     * Frames that arrive in one piece are passed on without copying, others are assembled in a pooled buffer.
+     */
+    public final class Decoder {
+        private final Consumer<ByteBuffer> handler;
+        private final ByteBuffer           header = ByteBuffer.allocate(Prefix.MaxLength);
+        private final ByteBuffer           single = ByteBuffer.allocate(1);
+        private @Nullable ByteBuffer       frame;
+        private long                       frames;
+
+        private Decoder(Consumer<ByteBuffer> handler) {
+            this.handler = handler;
+        }
+
+        public long getFrames() {
+            return frames;
+        }
+
+        /**
+         * @return whether a frame was started and not finished yet
+         */
+        public boolean isPartial() {
+            return frame != null || header.position() > 0;
+        }
+
+        public void feed(ByteBuffer in) throws IOException {
+            while (in.hasRemaining()) {
+                if (frame == null) {
+                    var length = readHeader(in);
+                    if (length == -1) return;
+                    check(length);
+                    if (in.remaining() >= length) {
+                        deliver(in.slice(in.position(), length));
+                        in.position(in.position() + length);
+                        continue;
+                    }
+                    frame = pool.acquire(length);
+                    frame.limit(length);
+                }
+
+                var n = Math.min(frame.remaining(), in.remaining());
+                frame.put(in.slice(in.position(), n));
+                in.position(in.position() + n);
+                if (!frame.hasRemaining()) {
+                    var complete = frame.flip();
+                    frame = null;
+                    try {
+                        deliver(complete);
+                    } finally {
+                        pool.release(complete);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Decodes until the channel ends.
+         *
+         * @return the number of frames decoded
+         */
+        public long read(ReadableByteChannel in) throws IOException {
+            var start  = frames;
+            var buffer = pool.acquire(ReadBufferSize);
+            try {
+                while (in.read(buffer) != -1) {
+                    feed(buffer.flip());
+                    buffer.clear();
+                }
+            } finally {
+                pool.release(buffer);
+            }
+            return end(start);
+        }
+
+        /**
+         * Decodes until the stream ends; this works for any {@link DelegateStream.Input}.
+         *
+         * @return the number of frames decoded
+         */
+        public long read(InputStream in) throws IOException {
+            var start  = frames;
+            var buffer = new byte[ReadBufferSize];
+            int n;
+            while ((n = in.read(buffer)) != -1)
+                feed(ByteBuffer.wrap(buffer, 0, n));
+            return end(start);
+        }
+
+        /**
+         * @return a sink that decodes everything written to it, e.g. as target of {@link DelegateStream#redirect(InputStream, OutputStream)}
+         */
+        public OutputStream asOutputStream() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    feed(single.clear().put((byte) b).flip());
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    feed(ByteBuffer.wrap(b, off, len));
+                }
+            };
+        }
+
+        private int readHeader(ByteBuffer in) throws IOException {
+            if (header.position() == 0) {
+                var length = prefix.read(in);
+                if (length == -1) header.put(in);
+                return length;
+            }
+            // the prefix was split across reads
+            while (in.hasRemaining()) {
+                header.put(in.get()).flip();
+                var length = prefix.read(header);
+                if (length != -1) {
+                    header.clear();
+                    return length;
+                }
+                header.position(header.limit()).limit(header.capacity());
+            }
+            return -1;
+        }
+
+        private void deliver(ByteBuffer frame) {
+            frames++;
+            handler.accept(frame.asReadOnlyBuffer());
+        }
+
+        private long end(long start) throws IOException {
+            if (isPartial()) throw new EOFException("Stream ended inside a frame");
+            return frames - start;
+        }
+    }
+
+    /**
+     * Reuses direct buffers in power-of-two size classes; larger buffers are allocated on the heap and not pooled.
+     */
+    public static final class BufferPool {
+        public static final BufferPool Shared = new BufferPool(32, 1 << 20);
+
+        private static final int MinClass = 6;
+
+        private final BlockingQueue<ByteBuffer>[] classes;
+        private final int                         maxPooledSize;
+
+        @SuppressWarnings("unchecked")
+        public BufferPool(int buffersPerClass, int maxPooledSize) {
+            this.maxPooledSize = maxPooledSize;
+            this.classes       = new BlockingQueue[sizeClass(maxPooledSize) + 1];
+            for (var i = MinClass; i < classes.length; i++)
+                classes[i] = new ArrayBlockingQueue<>(buffersPerClass);
+        }
+
+        /**
+         * @return a cleared buffer with at least {@code size} bytes capacity
+         */
+        public ByteBuffer acquire(int size) {
+            if (size > maxPooledSize) return ByteBuffer.allocate(size);
+            var index  = sizeClass(size);
+            var buffer = classes[index].poll();
+            return buffer == null ? ByteBuffer.allocateDirect(1 << index) : buffer.clear();
+        }
+
+        public void release(ByteBuffer buffer) {
+            var capacity = buffer.capacity();
+            if (!buffer.isDirect() || capacity > maxPooledSize || Integer.bitCount(capacity) != 1) return;
+            classes[sizeClass(capacity)].offer(buffer);
+        }
+
+        private static int sizeClass(int size) {
+            return Math.max(MinClass, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+        }
+    }
+}
@@ -20,6 +20,10 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.AnnotatedType;
 import java.lang.reflect.Constructor;
@@ -28,6 +32,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InaccessibleObjectException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -116,6 +121,40 @@ public interface Invocable<T> extends Named {
         };
     }
 
+    /**
+     * Reads the field through a {@link MethodHandle} bound once, instead of {@link Field#get}.
+     * Falls back to {@link #ofFieldGet(Object, Field)} if the field cannot be unreflected.
+     */
+    static <T> Invocable<T> ofFieldGetHandle(final @Nullable Object target, final Field field) {
+        try {
+            return new Support.OfFieldHandle<>(field, target, false);
+        } catch (IllegalAccessException e) {
+            Log.at(Level.FINE, "Could not bind getter handle for " + field + "; falling back to reflection", e);
+            return ofFieldGet(target, field);
+        }
+    }
+
+    static <T> Invocable<T> ofFieldGetHandle(final Field field) {
+        return ofFieldGetHandle(null, field);
+    }
+
+    /**
+     * Writes the field through a {@link MethodHandle} bound once, instead of {@link Field#set}.
+     * Falls back to {@link #ofFieldSet(Object, Field)} if the field cannot be unreflected.
+     */
+    static <T> Invocable<@Nullable T> ofFieldSetHandle(final @Nullable Object target, final Field field) {
+        try {
+            return new Support.OfFieldHandle<>(field, target, true);
+        } catch (IllegalAccessException e) {
+            Log.at(Level.FINE, "Could not bind setter handle for " + field + "; falling back to reflection", e);
+            return ofFieldSet(target, field);
+        }
+    }
+
+    static <T> Invocable<@Nullable T> ofFieldSetHandle(final Field field) {
+        return ofFieldSetHandle(null, field);
+    }
+
     static <T> Invocable<T> ofExecutable(Executable executable) {
         return ofExecutable(null, executable);
     }
@@ -132,6 +171,23 @@ public interface Invocable<T> extends Named {
         return new Support.OfMethod<>(method, target);
     }
 
+    /**
+     * Binds the method to a {@link MethodHandle} once, so that invocations do not go through {@link Method#invoke}.
+     * Falls back to {@link #ofMethodCall(Object, Method)} if the method cannot be unreflected.
+     */
+    static <T> Invocable<T> ofMethodHandle(@Nullable Object target, Method method) {
+        try {
+            return new Support.OfMethodHandle<>(method, target);
+        } catch (IllegalAccessException e) {
+            Log.at(Level.FINE, "Could not bind method handle for " + method + "; falling back to reflection", e);
+            return ofMethodCall(target, method);
+        }
+    }
+
+    static <T> Invocable<T> ofMethodHandle(Method method) {
+        return ofMethodHandle(null, method);
+    }
+
     static <T> Invocable<T> ofConstructor(Constructor<T> constructor) {
         return new Support.OfConstructor<>(constructor);
     }
@@ -351,8 +407,7 @@ public interface Invocable<T> extends Named {
                 @Nullable
                 @Override
                 public T invoke(Map<Class<?>, Object> args) throws InvocationTargetException, IllegalAccessException, InstantiationException {
-                    if (underlying instanceof Support.OfMethod) {
-                        final Method     method = ((Support.OfMethod<T>) underlying).method;
+                    if (underlying.accessor() instanceof Method method) {
                         final Class<?>[] param  = method.getParameterTypes();
                         final AnnotatedType[] annParam = method.getAnnotatedParameterTypes();
 
@@ -544,6 +599,173 @@ public interface Invocable<T> extends Named {
             }
         }
 
+        private static final class OfFieldHandle<T> implements Invocable<T> {
+            private static final MethodType   GetterType = MethodType.methodType(Object.class, Object.class);
+            private static final MethodType   SetterType = MethodType.methodType(void.class, Object.class, Object.class);
+            private final        Field        field;
+            private final        Object       target;
+            private final        boolean      setter;
+            private final        MethodHandle handle;
+
+            private OfFieldHandle(Field field, @Nullable Object target, boolean setter) throws IllegalAccessException {
+                this.field  = field;
+                this.target = target;
+                this.setter = setter;
+
+                field.trySetAccessible();
+                var lookup = MethodHandles.lookup();
+                var handle = setter ? lookup.unreflectSetter(field) : lookup.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers()))
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                this.handle = handle.asType(setter ? SetterType : GetterType);
+            }
+
+            @Override
+            public String getName() {
+                return field.getName();
+            }
+
+            @Override
+            public String getAlternateName() {
+                return String.format("OfFieldHandle(%s %s @ %s)", setter ? "set" : "get", field.getName(), target);
+            }
+
+            @Override
+            public @Nullable AccessibleObject accessor() {
+                return field;
+            }
+
+            @Nullable
+            @Override
+            public T invoke(@Nullable Object target, Object... args) throws InvocationTargetException {
+                final Object receiver = target == null ? this.target : target;
+                try {
+                    if (!setter) //noinspection unchecked
+                        return (T) (Object) handle.invokeExact(receiver);
+                    handle.invokeExact(receiver, args[0]);
+                } catch (ClassCastException ccEx) {
+                    if (!setter) throw ccEx;
+                    Log.at(Level.WARNING, "Could not set field " + field.getName(), ccEx);
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+                return null;
+            }
+
+            @Override
+            public Class<?>[] parameterTypesOrdered() {
+                return setter ? new Class[]{ field.getType() } : new Class[0];
+            }
+        }
+
+        private static final class OfMethodHandle<T> implements Invocable<T> {
+            private static final MethodType                 InvokerType  = MethodType.methodType(Object.class,
+                    Object.class,
+                    Object[].class);
+            private final        Method                     method;
+            private final        Object                     target;
+            private final        Class<?>[]                 parameterTypes;
+            private final        MethodHandle               handle;
+            private final        Map<ArgumentTypes, int[]> arrangements = new ConcurrentHashMap<>();
+
+            private OfMethodHandle(Method method, @Nullable Object target) throws IllegalAccessException {
+                this.method         = method;
+                this.target         = target;
+                this.parameterTypes = method.getParameterTypes();
+
+                method.trySetAccessible();
+                var handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+                if (Modifier.isStatic(method.getModifiers()))
+                    handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                this.handle = handle.asSpreader(Object[].class, parameterTypes.length).asType(InvokerType);
+            }
+
+            @Override
+            public String getName() {
+                return method.getName();
+            }
+
+            @Override
+            public String getAlternateName() {
+                return String.format("OfMethodHandle(%s @ %s)", method.getName(), target);
+            }
+
+            @Override
+            public @Nullable AccessibleObject accessor() {
+                return method;
+            }
+
+            @Override
+            public T invokeAutoOrder(Object... args) throws InvocationTargetException {
+                var argTypes = new Class<?>[args.length];
+                for (var i = 0; i < args.length; i++)
+                    argTypes[i] = args[i] == null ? null : args[i].getClass();
+
+                int[] arrangement;
+                try {
+                    arrangement = arrangements.computeIfAbsent(new ArgumentTypes(argTypes),
+                            key -> ReflectionHelper.arrangement(key.types(), parameterTypes));
+                } catch (IllegalArgumentException iaEx) {
+                    throw new IllegalArgumentException(String.format("unable to arrange arguments: %s - %s",
+                            getName(), Arrays.toString(args)), iaEx);
+                }
+
+                var arranged = new Object[arrangement.length];
+                for (var i = 0; i < arrangement.length; i++)
+                    arranged[i] = args[arrangement[i]];
+                return invoke(null, arranged);
+            }
+
+            @Nullable
+            @Override
+            public T invoke(@Nullable Object target, Object... args) throws InvocationTargetException {
+                final Object receiver = target == null ? this.target : target;
+                final Object result;
+                try {
+                    result = handle.invokeExact(receiver, args);
+                } catch (ClassCastException | WrongMethodTypeException | IllegalArgumentException | NullPointerException ex) {
+                    // the handle converts the arguments itself; report unfit arguments like Method#invoke does
+                    if (!accepts(receiver, args))
+                        throw new IllegalArgumentException(String.format("argument type mismatch: %s - %s",
+                                getName(), Arrays.toString(args)), ex);
+                    throw new InvocationTargetException(ex);
+                } catch (Throwable t) {
+                    throw new InvocationTargetException(t);
+                }
+                //noinspection unchecked
+                return (T) result;
+            }
+
+            @Override
+            public Class<?>[] parameterTypesOrdered() {
+                return parameterTypes;
+            }
+
+            private boolean accepts(@Nullable Object receiver, Object @Nullable [] args) {
+                if (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(receiver))
+                    return false;
+                if (args == null || args.length != parameterTypes.length) return false;
+                for (var i = 0; i < args.length; i++) {
+                    var type = parameterTypes[i];
+                    if (args[i] == null ? type.isPrimitive() : !MethodType.methodType(type).wrap().returnType().isInstance(args[i]))
+                        return false;
+                }
+                return true;
+            }
+
+            private record ArgumentTypes(Class<?>[] types) {
+                @Override
+                public boolean equals(Object other) {
+                    return other instanceof ArgumentTypes it && Arrays.equals(types, it.types);
+                }
+
+                @Override
+                public int hashCode() {
+                    return Arrays.hashCode(types);
+                }
+            }
+        }
+
         private static final class ParamReturning<T> implements Invocable<T> {
             private final Class<T> type;
             private final Class<?>[] typeArray;
@@ -578,7 +800,9 @@ public interface Invocable<T> extends Named {
         }
 
         private static final class Constant<T> implements Invocable<T> {
-            private static final Map<Object, Invocable<Object>> Cache = new ConcurrentHashMap<>();
+            private static final Map<Object, Invocable<Object>> Cache = org.comroid.api.map.Cache.<Object, Invocable<Object>>builder()
+                    .maximumSize(1024)
+                    .build();
             private final T value;
 
             private Constant(T value) {
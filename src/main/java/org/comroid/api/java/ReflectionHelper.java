@@ -23,6 +23,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
@@ -39,6 +40,13 @@ import static java.lang.reflect.Modifier.*;
 
 @ApiStatus.Experimental
 public final class ReflectionHelper {
+    private static final ClassValue<List<Class<?>>> Hierarchy = new ClassValue<>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            return StreamSupport.stream(recursiveClassGenerator(type), false).distinct().toList();
+        }
+    };
+
     @SneakyThrows
     public static <T> T call(Object target, String methodName, Object... args) {
         boolean dynamic = !(target instanceof Class);
@@ -197,16 +205,39 @@ public final class ReflectionHelper {
     }
 
     public static Object[] arrange(Object[] args, Class<?>[] typesOrdered) throws IllegalArgumentException {
-        final Object[] yields = new Object[typesOrdered.length];
+        final Class<?>[] argTypes = new Class[args.length];
+        for (int i = 0; i < args.length; i++)
+            argTypes[i] = args[i] == null ? null : args[i].getClass();
+
+        final int[]    arrangement = arrangement(argTypes, typesOrdered);
+        final Object[] yields      = new Object[arrangement.length];
+        for (int i = 0; i < arrangement.length; i++)
+            yields[i] = args[arrangement[i]];
 
+        return yields;
+    }
+
+    /**
+     * Computes the argument permutation that {@link #arrange(Object[], Class[])} would apply.
+     * The result only depends on the argument types, so it can be cached per call site signature.
+     *
+     * @param argTypes     the runtime types of the given arguments; {@code null} for {@code null} arguments
+     * @param typesOrdered the parameter types to arrange for
+     * @return for every parameter, the index of the argument to pass
+     * @throws IllegalArgumentException if a parameter type has no compatible argument
+     */
+    public static int[] arrangement(@Nullable Class<?>[] argTypes, Class<?>[] typesOrdered) throws IllegalArgumentException {
+        final int[] yields = new int[typesOrdered.length];
+
+        params:
         for (int i = 0; i < typesOrdered.length; i++) {
-            int finalli = i;
-            yields[i] = Stream.of(args)
-                    .filter(Objects::nonNull)
-                    .filter(it -> typeCompat(typesOrdered[finalli], it.getClass()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "No instance of " + typesOrdered[finalli].getName() + " found in array"));
+            for (int j = 0; j < argTypes.length; j++) {
+                if (argTypes[j] == null || !typeCompat(typesOrdered[i], argTypes[j]))
+                    continue;
+                yields[i] = j;
+                continue params;
+            }
+            throw new IllegalArgumentException("No instance of " + typesOrdered[i].getName() + " found in array");
         }
 
         return yields;
@@ -226,6 +257,14 @@ public final class ReflectionHelper {
         return of;
     }
 
+    /**
+     * Returns the given type, all of its superclasses and all of its interfaces, nearest first.
+     * The result is computed once per class.
+     */
+    public static List<Class<?>> hierarchy(Class<?> type) {
+        return Hierarchy.get(type);
+    }
+
     public static <A extends Annotation> Optional<A> findAnnotation(Class<A> annotation, Class<?> inClass, ElementType target) {
         //noinspection SwitchStatementWithTooFewBranches
         switch (target) {
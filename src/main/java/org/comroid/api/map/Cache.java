@@ -1,145 +1,502 @@
 package org.comroid.api.map;
 
 import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Value;
 import lombok.experimental.FieldDefaults;
-import org.comroid.api.func.util.Streams;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
-import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.Spliterator;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
-import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.LongSupplier;
 
 import static org.comroid.api.Polyfill.*;
 
-@Builder
-@AllArgsConstructor
+/**
+ * An in-process cache with optional size bound, expiry and loader.
+ * <p>
+ * Entries are spread over lock-striped segments; each segment keeps its entries in access order, so once
+ * {@code maximumSize} is exceeded the least recently used entry of the written segment is evicted.
+ * The size bound is approximate: eviction only looks at the written segment, which keeps at least its newest entry,
+ * so the cache may briefly hold more entries while writes to other segments are in progress, and evicts entries
+ * that are not the least recently used of the whole cache.
+ * Expired entries are dropped when they are read, and swept from the head of a segment on every write.
+ * With a {@code referenceCtor}, values are only held by the references it creates; an entry whose value was
+ * collected counts as expired, and all such entries are swept by the first write after the collection.
+ * The {@code compute} methods and the {@code loader} run while the segment of their key is locked, so they run at
+ * most once at a time per key; they must be fast, and must not access other keys of the cache.
+ * {@link #size()} is a counter read and does not walk the entries.
+ *
+ * @param <K> the key type
+ * @param <V> the value type; {@code null} values are not stored
+ */
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class Cache<K, V> extends AbstractMap<K, @Nullable V> {
-    Map<K, Reference<V>>    map = new ConcurrentHashMap<>();
-    ReferenceQueue<@Nullable V> queue = new ReferenceQueue<>();
-    Function<@NotNull V, K> keyFunction;
-    @Nullable @lombok.Builder.Default BiConsumer<K, @Nullable V>                     deleteCallback = null;
-    @lombok.Builder.Default           BiFunction<V, ReferenceQueue<V>, Reference<V>> referenceCtor  = WeakReference::new;
+    public static final int DefaultConcurrencyLevel = 16;
+
+    Segment<K, V>[]                      segments;
+    long                                 maximumSize;
+    long                                 expireAfterWriteNanos;
+    long                                 expireAfterAccessNanos;
+    @Nullable Function<? super K, ? extends V> loader;
+    @Nullable Function<@NotNull V, K>    keyFunction;
+    @Nullable BiConsumer<K, @Nullable V> deleteCallback;
+    @Nullable BiFunction<V, ReferenceQueue<V>, Reference<V>> referenceCtor;
+    ReferenceQueue<V>                    queue     = new ReferenceQueue<>();
+    LongSupplier                         ticker;
+    AtomicInteger                        count     = new AtomicInteger();
+    LongAdder                            hits      = new LongAdder();
+    LongAdder                            misses    = new LongAdder();
+    LongAdder                            loads     = new LongAdder();
+    LongAdder                            evictions = new LongAdder();
+
+    /** Creates an unbounded cache without expiry. */
+    public Cache() {
+        this(0, null, null, 0, null, null, null, null, null);
+    }
+
+    /**
+     * @deprecated use {@link #builder()}
+     */
+    @Deprecated
+    public Cache(
+            Function<@NotNull V, K> keyFunction, @Nullable BiConsumer<K, @Nullable V> deleteCallback,
+            BiFunction<V, ReferenceQueue<V>, Reference<V>> referenceCtor
+    ) {
+        this(0, null, null, 0, null, keyFunction, deleteCallback, referenceCtor, null);
+    }
+
+    /**
+     * @param maximumSize       the approximate maximum number of entries; {@code 0} for unbounded
+     * @param expireAfterWrite  how long an entry lives after it was written; {@code null} for no limit
+     * @param expireAfterAccess how long an entry lives after it was last read; {@code null} for no limit
+     * @param concurrencyLevel  the number of lock stripes; {@code 0} for {@link #DefaultConcurrencyLevel}
+     * @param loader            computes missing values on {@link #get(Object)}; concurrent misses of the same key
+     *                          wait for a single computation
+     * @param keyFunction       derives the key of a value for {@link #push(Object)}
+     * @param deleteCallback    notified for every entry that is evicted, expired or removed; with a {@code null}
+     *                          value if it was collected
+     * @param referenceCtor     wraps values into references, e.g. {@code WeakReference::new}; {@code null} to hold
+     *                          values strongly
+     * @param ticker            nanosecond time source; {@code null} for {@link System#nanoTime()}
+     */
+    @Builder
+    public Cache(
+            long maximumSize,
+            @Nullable Duration expireAfterWrite,
+            @Nullable Duration expireAfterAccess,
+            int concurrencyLevel,
+            @Nullable Function<? super K, ? extends V> loader,
+            @Nullable Function<@NotNull V, K> keyFunction,
+            @Nullable BiConsumer<K, @Nullable V> deleteCallback,
+            @Nullable BiFunction<V, ReferenceQueue<V>, Reference<V>> referenceCtor,
+            @Nullable LongSupplier ticker
+    ) {
+        if (maximumSize < 0) throw new IllegalArgumentException("maximumSize must not be negative");
+        if (concurrencyLevel < 0) throw new IllegalArgumentException("concurrencyLevel must not be negative");
+
+        var stripes = Integer.highestOneBit(Math.max(1, concurrencyLevel == 0 ? DefaultConcurrencyLevel : concurrencyLevel));
+        if (maximumSize > 0 && maximumSize < stripes) stripes = Integer.highestOneBit((int) maximumSize);
+
+        this.segments               = uncheckedCast(new Segment[stripes]);
+        this.maximumSize            = maximumSize;
+        this.expireAfterWriteNanos  = expireAfterWrite == null ? 0 : expireAfterWrite.toNanos();
+        this.expireAfterAccessNanos = expireAfterAccess == null ? 0 : expireAfterAccess.toNanos();
+        this.loader                 = loader;
+        this.keyFunction            = keyFunction;
+        this.deleteCallback         = deleteCallback;
+        this.referenceCtor          = referenceCtor;
+        this.ticker                 = ticker == null ? System::nanoTime : ticker;
+
+        for (var i = 0; i < stripes; i++)
+            segments[i] = new Segment<>();
+    }
 
     @Override
     public int size() {
-        return (int) map.values().stream()
-                .flatMap(ref -> Stream.ofNullable(ref.get()))
-                .filter(Objects::nonNull)
-                .count();
+        return count.get();
     }
 
     @Override
-    public boolean containsKey(Object key0) {
-        K key = uncheckedCast(key0);
-        return map.get(key).get() != null;
+    public boolean isEmpty() {
+        return count.get() == 0;
     }
 
+    @Override
+    public boolean containsKey(Object key) {
+        return getIfPresent(key) != null;
+    }
+
+    /**
+     * Returns the cached value, or computes it with the {@code loader} if there is one.
+     */
     @Override
     public @Nullable V get(Object key0) {
-        K key   = uncheckedCast(key0);
-        V value = wrap(key).orElse(null);
-        if (value != null) {
-            var ref = referenceCtor.apply(value, queue);
-            map.put(key, ref);
+        if (loader == null) return getIfPresent(key0);
+        K key = uncheckedCast(key0);
+        return update(key, (k, v) -> loader.apply(k), true);
+    }
+
+    /**
+     * Returns the cached value without invoking the {@code loader}.
+     */
+    public @Nullable V getIfPresent(Object key0) {
+        K       key     = uncheckedCast(key0);
+        var     segment = segmentFor(key);
+        var     now     = ticker.getAsLong();
+        Node<V> expired = null;
+
+        segment.lock.lock();
+        try {
+            var node = segment.map.get(key);
+            if (node != null) {
+                var value = node.get();
+                if (value != null && !isExpired(node, now)) {
+                    node.accessTime = now;
+                    hits.increment();
+                    return value;
+                }
+                segment.map.remove(key);
+                count.decrementAndGet();
+                expired = node;
+            }
+        } finally {
+            segment.lock.unlock();
         }
-        return value;
+
+        misses.increment();
+        if (expired != null) {
+            evictions.increment();
+            notifyDeleted(key, expired.get());
+        }
+        return null;
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        return update(key, (k, v) -> mappingFunction.apply(k), true);
+    }
+
+    @Override
+    public @Nullable V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends @Nullable V> remappingFunction) {
+        return update(key, (k, v) -> v == null ? null : remappingFunction.apply(k, v), false);
+    }
+
+    @Override
+    public @Nullable V compute(K key, BiFunction<? super K, ? super @Nullable V, ? extends @Nullable V> remappingFunction) {
+        return update(key, remappingFunction, false);
+    }
+
+    @Override
+    public @Nullable V merge(K key, V value, BiFunction<? super V, ? super V, ? extends @Nullable V> remappingFunction) {
+        Objects.requireNonNull(value, "value");
+        return update(key, (k, v) -> v == null ? value : remappingFunction.apply(v, value), false);
     }
 
     @Override
-    public @Nullable V put(K key, V value) {
-        return super.put(key, value);
+    public @Nullable V put(K key, @Nullable V value) {
+        if (value == null) return remove(key);
+        return write(key, value, false);
+    }
+
+    @Override
+    public @Nullable V putIfAbsent(K key, @Nullable V value) {
+        if (value == null) return getIfPresent(key);
+        return write(key, value, true);
+    }
+
+    @Override
+    public @Nullable V remove(Object key0) {
+        K       key     = uncheckedCast(key0);
+        var     segment = segmentFor(key);
+        Node<V> node;
+
+        segment.lock.lock();
+        try {
+            node = segment.map.remove(key);
+            if (node != null) count.decrementAndGet();
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (node == null) return null;
+        var value = node.get();
+        notifyDeleted(key, value);
+        return isExpired(node, ticker.getAsLong()) ? null : value;
     }
 
     @Override
     public void clear() {
-        // collect keys based on whether their value was GCd
-        var keys = Stream.concat(
-                map.entrySet().stream()
-                        .map(Streams.Multi.mapB(Reference::get))
-                        .flatMap(Streams.Multi.filterB(Objects::isNull))
-                        .map(Entry::getKey),
-                Streams.of(new Spliterator<Reference<? extends V>>() {
-                            Reference<? extends V> ref;
-
-                            @Override
-                            public synchronized boolean tryAdvance(Consumer<? super Reference<? extends V>> consumer) {
-                                if (ref == null || (ref = queue.poll()) == null)
-                                    return false;
-                                consumer.accept(ref);
-                                return true;
-                            }
-
-                            @Override
-                            public Spliterator<Reference<? extends V>> trySplit() {
-                                return null;
-                            }
-
-                            @Override
-                            public long estimateSize() {
-                                return Long.MAX_VALUE;
-                            }
-
-                            @Override
-                            public int characteristics() {
-                                return NONNULL;
-                            }
-                        })
-                        .map(Reference::get)
-                        .filter(Objects::nonNull)
-                        .map(keyFunction)
-        ).toArray();
-        for (Object key : keys) {
-            var val = remove(key);
-            if (deleteCallback != null)
-                deleteCallback.accept(uncheckedCast(key), val);
+        for (var segment : segments) {
+            List<Map.Entry<K, Node<V>>> removed;
+            segment.lock.lock();
+            try {
+                removed = new ArrayList<>(segment.map.entrySet());
+                segment.map.clear();
+                count.addAndGet(-removed.size());
+            } finally {
+                segment.lock.unlock();
+            }
+            removed.forEach(e -> notifyDeleted(e.getKey(), e.getValue().get()));
         }
     }
 
+    /**
+     * A snapshot of all live entries; changes to the cache are not reflected in it.
+     */
     @NotNull
     @Override
     public Set<Entry<K, @NotNull V>> entrySet() {
-        return map.entrySet().stream()
-                .map(Streams.Multi.mapB(Reference::get))
-                .flatMap(Streams.Multi.filterB(Objects::nonNull))
-                .collect(Collectors.toUnmodifiableSet());
+        var now      = ticker.getAsLong();
+        var snapshot = new HashSet<Entry<K, V>>(count.get());
+        for (var segment : segments) {
+            segment.lock.lock();
+            try {
+                for (var e : segment.map.entrySet()) {
+                    var value = e.getValue().get();
+                    if (value != null && !isExpired(e.getValue(), now))
+                        snapshot.add(new SimpleImmutableEntry<>(e.getKey(), value));
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return Collections.unmodifiableSet(snapshot);
     }
 
     public Optional<V> wrap(K key) {
-        var ref   = map.get(key);
-        V   value = null;
-        if (ref != null) {
-            value = ref.get();
-            ref.enqueue();
+        return Optional.ofNullable(getIfPresent(key));
+    }
+
+    /**
+     * Stores the value under the key derived by the {@code keyFunction}.
+     *
+     * @return the value previously cached under that key
+     */
+    public @Nullable V push(V value) {
+        Objects.requireNonNull(keyFunction, "keyFunction");
+        return put(keyFunction.apply(value), value);
+    }
+
+    /**
+     * Removes all expired and collected entries right away, instead of waiting for them to be read or swept by a write.
+     */
+    public void cleanUp() {
+        var now = ticker.getAsLong();
+        for (var segment : segments) {
+            List<Map.Entry<K, Node<V>>> removed = new ArrayList<>();
+            segment.lock.lock();
+            try {
+                var iter = segment.map.entrySet().iterator();
+                while (iter.hasNext()) {
+                    var e = iter.next();
+                    if (!isExpired(e.getValue(), now)) continue;
+                    iter.remove();
+                    removed.add(e);
+                }
+                count.addAndGet(-removed.size());
+            } finally {
+                segment.lock.unlock();
+            }
+            evictions.add(removed.size());
+            removed.forEach(e -> notifyDeleted(e.getKey(), e.getValue().get()));
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), loads.sum(), evictions.sum());
+    }
+
+    /**
+     * Replaces the value of {@code key} with the result of {@code function} while its segment is locked;
+     * a {@code null} result removes it.
+     *
+     * @param load whether to return a present value as a hit instead, and count calling the function as a load
+     */
+    private @Nullable V update(K key, BiFunction<? super K, ? super @Nullable V, ? extends @Nullable V> function, boolean load) {
+        var                         segment = segmentFor(key);
+        var                         now     = ticker.getAsLong();
+        List<Map.Entry<K, Node<V>>> removed = null;
+        Node<V>                     deleted = null;
+        V                           value;
+
+        segment.lock.lock();
+        try {
+            var node = segment.map.get(key);
+            if (node != null && isExpired(node, now)) {
+                segment.map.remove(key);
+                count.decrementAndGet();
+                removed = new ArrayList<>();
+                removed.add(new SimpleImmutableEntry<>(key, node));
+                node = null;
+            }
+            var current = node == null ? null : node.get();
+            if (load) {
+                if (current != null) {
+                    node.accessTime = now;
+                    hits.increment();
+                    return current;
+                }
+                misses.increment();
+                loads.increment();
+            }
+
+            value = function.apply(key, current);
+            if (value == null) {
+                if (node != null) {
+                    segment.map.remove(key);
+                    count.decrementAndGet();
+                    deleted = node;
+                }
+            } else if (current != value) {
+                if (segment.map.put(key, node(value, now)) == null) count.incrementAndGet();
+                removed = evict(segment, now, removed);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (removed != null) {
+            evictions.add(removed.size());
+            removed.forEach(e -> notifyDeleted(e.getKey(), e.getValue().get()));
         }
-        return Optional.ofNullable(value);
+        if (deleted != null) notifyDeleted(key, deleted.get());
+        sweepCollected();
+        return value;
     }
 
-    public V push(V value) {
-        var key  = keyFunction.apply(value);
-        var ref = map.put(key, referenceCtor.apply(value, queue));
-        V   prev = null;
-        if (ref != null) {
-            prev = ref.get();
-            if (prev != null)
-                ref.enqueue();
+    private @Nullable V write(K key, V value, boolean onlyIfAbsent) {
+        var                         segment = segmentFor(key);
+        var                         now     = ticker.getAsLong();
+        List<Map.Entry<K, Node<V>>> removed = null;
+        V                           prev    = null;
+
+        segment.lock.lock();
+        try {
+            var node = segment.map.get(key);
+            if (node != null && isExpired(node, now)) {
+                segment.map.remove(key);
+                count.decrementAndGet();
+                removed = new ArrayList<>();
+                removed.add(new SimpleImmutableEntry<>(key, node));
+                node = null;
+            }
+            if (node != null) {
+                prev = node.get();
+                if (onlyIfAbsent && prev != null) return prev;
+            }
+            if (segment.map.put(key, node(value, now)) == null) count.incrementAndGet();
+            removed = evict(segment, now, removed);
+        } finally {
+            segment.lock.unlock();
         }
+
+        if (removed != null) {
+            evictions.add(removed.size());
+            removed.forEach(e -> notifyDeleted(e.getKey(), e.getValue().get()));
+        }
+        sweepCollected();
         return prev;
     }
+
+    // caller holds the segment lock; the most recently written entry is never evicted
+    private @Nullable List<Map.Entry<K, Node<V>>> evict(Segment<K, V> segment, long now, @Nullable List<Map.Entry<K, Node<V>>> removed) {
+        Iterator<Map.Entry<K, Node<V>>> iter = segment.map.entrySet().iterator();
+        while (segment.map.size() > 1 && iter.hasNext()) {
+            var eldest = iter.next();
+            if (!isExpired(eldest.getValue(), now) && (maximumSize == 0 || count.get() <= maximumSize)) break;
+            iter.remove();
+            count.decrementAndGet();
+            if (removed == null) removed = new ArrayList<>();
+            removed.add(eldest);
+        }
+        return removed;
+    }
+
+    private Node<V> node(V value, long now) {
+        return referenceCtor == null ? new Node<>(value, null, now) : new Node<>(null, referenceCtor.apply(value, queue), now);
+    }
+
+    // must not hold a segment lock, because this locks all of them
+    private void sweepCollected() {
+        if (referenceCtor == null || queue.poll() == null) return;
+        //noinspection StatementWithEmptyBody
+        while (queue.poll() != null) ;
+        cleanUp();
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return (node.reference != null && node.reference.get() == null)
+               || (expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos)
+               || (expireAfterAccessNanos > 0 && now - node.accessTime >= expireAfterAccessNanos);
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        var hash = Objects.hashCode(key);
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    private void notifyDeleted(K key, V value) {
+        if (deleteCallback != null) deleteCallback.accept(key, value);
+    }
+
+    @Value
+    public static class Stats {
+        long hitCount;
+        long missCount;
+        long loadCount;
+        long evictionCount;
+
+        public long requestCount() {
+            return hitCount + missCount;
+        }
+
+        public double hitRate() {
+            var requests = requestCount();
+            return requests == 0 ? 1.0 : (double) hitCount / requests;
+        }
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock             lock = new ReentrantLock();
+        private final LinkedHashMap<K, Node<V>> map  = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    private static final class Node<V> {
+        private final @Nullable V            value;
+        private final @Nullable Reference<V> reference;
+        private final long                   writeTime;
+        private       long                   accessTime;
+
+        private Node(@Nullable V value, @Nullable Reference<V> reference, long now) {
+            this.value      = value;
+            this.reference  = reference;
+            this.writeTime  = now;
+            this.accessTime = now;
+        }
+
+        private @Nullable V get() {
+            return reference == null ? value : reference.get();
+        }
+    }
 }
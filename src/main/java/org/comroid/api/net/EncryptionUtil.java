@@ -3,18 +3,29 @@ package org.comroid.api.net;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import org.comroid.api.attr.Named;
+import org.comroid.api.func.exc.ThrowingFunction;
 import org.intellij.lang.annotations.MagicConstant;
 import org.jetbrains.annotations.Range;
 
 import javax.crypto.Cipher;
 import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class EncryptionUtil {
-    private static final Map<UUID, Cipher> cipherCache = new ConcurrentHashMap<>();
+    private static final Map<UUID, SecretKeySpec> keyCache  = new ConcurrentHashMap<>();
+    private static final Map<String, CipherPool>  poolCache = new ConcurrentHashMap<>();
 
+    /**
+     * {@link Cipher} is not thread-safe, so every call returns a new, separately initialized instance.
+     * The caller owns it, so it is not taken from a {@link CipherPool}; use {@link CipherPool#use} for pooled ciphers.
+     *
+     * @param id identifies the key; the key of the first call with this id is reused
+     */
     @lombok.Builder
     @SneakyThrows
     public static Cipher prepareCipher(
@@ -24,7 +35,17 @@ public class EncryptionUtil {
             @MagicConstant(valuesFromClass = Cipher.class) int mode,
             @Range(from = 16, to = 16) String key
     ) {
-        return cipherCache.computeIfAbsent(id, $ -> $createCipher(algorithm, transformation, mode, key));
+        var secret = keyCache.computeIfAbsent(id, $ -> new SecretKeySpec(key.getBytes(), algorithm.getName()));
+        var cipher = Cipher.getInstance(transformation.getName());
+        cipher.init(mode, secret);
+        return cipher;
+    }
+
+    /**
+     * @return the shared pool of ciphers with the given transformation
+     */
+    public static CipherPool pool(String transformation) {
+        return poolCache.computeIfAbsent(transformation, CipherPool::new);
     }
 
     private EncryptionUtil() {
@@ -64,16 +85,36 @@ public class EncryptionUtil {
         }
     }
 
-    @SneakyThrows
-    private static Cipher $createCipher(
-            Algorithm algorithm,
-            Transformation transformation,
-            @MagicConstant(valuesFromClass = Cipher.class) int mode,
-            @Range(from = 16, to = 16) String key
-    ) {
-        var secret = new SecretKeySpec(key.getBytes(), algorithm.getName());
-        var cipher = Cipher.getInstance(transformation.getName());
-        cipher.init(mode, secret);
-        return cipher;
+    /**
+     * Reuses {@link Cipher} instances of one transformation, skipping the provider lookup of {@link Cipher#getInstance(String)}.
+     * A cipher belongs to one thread between {@link #acquire()} and {@link #release(Cipher)} and must be initialized before use.
+     */
+    public static final class CipherPool {
+        @Getter
+        private final String        transformation;
+        private final Queue<Cipher> idle = new ConcurrentLinkedQueue<>();
+
+        public CipherPool(String transformation) {
+            this.transformation = transformation;
+        }
+
+        @SneakyThrows
+        public Cipher acquire() {
+            var cipher = idle.poll();
+            return cipher != null ? cipher : Cipher.getInstance(transformation);
+        }
+
+        public void release(Cipher cipher) {
+            idle.offer(cipher);
+        }
+
+        public <R> R use(ThrowingFunction<Cipher, R, GeneralSecurityException> action) throws GeneralSecurityException {
+            var cipher = acquire();
+            try {
+                return action.apply(cipher);
+            } finally {
+                release(cipher);
+            }
+        }
     }
 }
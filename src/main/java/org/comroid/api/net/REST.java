@@ -1,9 +1,13 @@
 package org.comroid.api.net;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.Singular;
+import lombok.ToString;
 import lombok.Value;
 import lombok.experimental.NonFinal;
 import org.comroid.api.Polyfill;
@@ -12,23 +16,37 @@ import org.comroid.api.data.seri.DataNode;
 import org.comroid.api.data.seri.MimeType;
 import org.comroid.api.data.seri.Serializer;
 import org.comroid.api.data.seri.adp.Jackson;
-import org.comroid.api.func.util.Cache;
+import org.comroid.api.map.Cache;
 import org.comroid.api.info.Constraint;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Data
 @AllArgsConstructor
@@ -80,10 +98,119 @@ public final class REST {
     private Serializer<? extends DataNode> serializer;
     private @Nullable Cache<URI, Response>                           cache;
     private           Function<Request, CompletableFuture<Response>> executor;
+    @Getter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    private final     Map<Flight, CompletableFuture<Response>>       inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a copy of this REST that serves GET requests through an HTTP cache.
+     * <p>
+     * Cached responses are reused while they are fresh by their {@code Cache-Control} or {@code Expires} headers,
+     * and revalidated with {@code If-None-Match} / {@code If-Modified-Since} once they are stale.
+     * Identical GET requests that are in flight at the same time share one network round-trip.
+     */
+    public REST withCache(Cache<URI, Response> cache) {
+        return new REST(serializer, cache, executor);
+    }
+
+    public REST withCache() {
+        return withCache(Cache.<URI, Response>builder()
+                .maximumSize(1024)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build());
+    }
+
+    private CompletableFuture<Response> executeCached(Request request) {
+        final var control = cacheDirectives(header(request.headers, "Cache-Control").orElse(""));
+        if (control.containsKey("no-store")) return executor.apply(request);
+
+        var cached = cache.getIfPresent(request.uri);
+        if (cached != null && !cached.request.headers.equals(request.headers)) cached = null;
+        if (cached != null && !control.containsKey("no-cache") && cached.isFresh())
+            return CompletableFuture.completedFuture(cached);
+
+        final var key     = new Flight(request.uri, Map.copyOf(request.headers));
+        final var future  = new CompletableFuture<Response>();
+        final var running = inFlight.putIfAbsent(key, future);
+        if (running != null) return running;
+
+        CompletableFuture<Response> exchange;
+        try {
+            exchange = exchange(request, cached);
+        } catch (Throwable t) {
+            exchange = CompletableFuture.failedFuture(t);
+        }
+        exchange.whenComplete((response, t) -> {
+            inFlight.remove(key, future);
+            if (t != null) future.completeExceptionally(t);
+            else future.complete(response);
+        });
+        return future;
+    }
+
+    private CompletableFuture<Response> exchange(Request request, @Nullable Response cached) {
+        final var uri = request.uri;
+        if (cached == null) return executor.apply(request).thenApply(response -> store(uri, response));
+
+        var conditional = new Request(request.method, uri, request.body, request.serializer);
+        conditional.headers.putAll(request.headers);
+        cached.header("ETag").ifPresent(etag -> conditional.headers.put("If-None-Match", etag));
+        cached.header("Last-Modified").ifPresent(date -> conditional.headers.put("If-Modified-Since", date));
+        return executor.apply(conditional).thenApply(response -> {
+            if (response.responseCode != 304)
+                return store(uri, new Response(request, response.responseCode, response.body, response.headers));
+            var headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(cached.headers);
+            headers.putAll(response.headers);
+            return store(uri, new Response(request, cached.responseCode, cached.body, headers));
+        });
+    }
+
+    private Response store(URI uri, Response response) {
+        if (cache != null && response.isStorable()) cache.put(uri, response);
+        return response;
+    }
+
+    private static Optional<String> header(Map<String, ?> headers, String name) {
+        return headers.entrySet()
+                .stream()
+                .filter(e -> e.getKey().equalsIgnoreCase(name))
+                .flatMap(e -> e.getValue() instanceof List<?> ls ? ls.stream() : Stream.of(e.getValue()))
+                .map(String::valueOf)
+                .findFirst();
+    }
+
+    private static Map<String, String> cacheDirectives(String header) {
+        var directives = new HashMap<String, String>();
+        for (var part : header.split(",")) {
+            var directive = part.trim();
+            if (directive.isEmpty()) continue;
+            var eq = directive.indexOf('=');
+            if (eq == -1) directives.put(directive.toLowerCase(), "");
+            else directives.put(directive.substring(0, eq).trim().toLowerCase(),
+                    directive.substring(eq + 1).trim().replace("\"", ""));
+        }
+        return directives;
+    }
+
+    private static Optional<Instant> parseDate(String date) {
+        try {
+            return Optional.of(ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static long parseSeconds(String seconds) {
+        try {
+            return Math.max(0, Long.parseLong(seconds.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 
     public enum Method implements Named {
         GET, POST, PUT, DELETE, HEAD, OPTIONS, TRACE, CONNECT, PATCH, // non standard
-        MKCOL
+        MKCOL, MOVE
     }
 
     @Value
@@ -131,11 +258,38 @@ public final class REST {
         }
 
         public CompletableFuture<Response> execute() {
-            return executor.apply(this);
+            return cache != null && method == Method.GET ? executeCached(this) : executor.apply(this);
+        }
+
+        /**
+         * Sends this request and hands the response body to the given handler instead of parsing it.
+         * Bypasses the cache, and redirects are not followed.
+         *
+         * @throws UnsupportedOperationException if this REST does not send requests over HTTP itself
+         */
+        public <B> CompletableFuture<HttpResponse<B>> execute(HttpResponse.BodyHandler<B> handler) {
+            if (!(executor instanceof HttpExecutor http))
+                throw new UnsupportedOperationException("Executor does not support body handlers: " + executor);
+            return http.send(this, handler);
+        }
+
+        /**
+         * Sends this request and provides the response body as a stream of bytes, as it is being received.
+         */
+        public CompletableFuture<HttpResponse<InputStream>> executeStream() {
+            return execute(HttpResponse.BodyHandlers.ofInputStream());
+        }
+
+        /**
+         * Sends this request and provides the response body as a stream of lines, as it is being received.
+         */
+        public CompletableFuture<HttpResponse<Stream<String>>> executeLines() {
+            return execute(HttpResponse.BodyHandlers.ofLines());
         }
 
         private CompletableFuture<Response> handleRedirect(Response response) {
-            if (response.responseCode / 100 != 3) return CompletableFuture.completedFuture(response);
+            if (response.responseCode / 100 != 3 || response.responseCode == 304 || response.header("Location").isEmpty())
+                return CompletableFuture.completedFuture(response);
             var location = response.headers.get("Location").get(0);
             return setUri(Polyfill.uri(location)).execute().thenCompose(this::handleRedirect);
         }
@@ -152,6 +306,36 @@ public final class REST {
         int      responseCode;
         DataNode body;
         Map<String, List<String>> headers;
+        Instant  received = Instant.now();
+
+        public Optional<String> header(String name) {
+            return REST.header(headers, name);
+        }
+
+        /**
+         * How long this response may be served from a cache without revalidation,
+         * as given by its {@code Cache-Control} or {@code Expires} header.
+         */
+        public Duration getFreshnessLifetime() {
+            var control = cacheDirectives(header("Cache-Control").orElse(""));
+            if (control.containsKey("no-cache") || control.containsKey("no-store")) return Duration.ZERO;
+            if (control.containsKey("max-age")) return Duration.ofSeconds(parseSeconds(control.get("max-age")));
+            return header("Expires").flatMap(REST::parseDate)
+                    .map(expires -> Duration.between(header("Date").flatMap(REST::parseDate).orElse(received), expires))
+                    .filter(lifetime -> !lifetime.isNegative())
+                    .orElse(Duration.ZERO);
+        }
+
+        public boolean isFresh() {
+            var age = Duration.between(received, Instant.now()).plusSeconds(header("Age").map(REST::parseSeconds).orElse(0L));
+            return age.compareTo(getFreshnessLifetime()) < 0;
+        }
+
+        public boolean isStorable() {
+            return responseCode == 200 && request.method == Method.GET
+                   && !cacheDirectives(header("Cache-Control").orElse("")).containsKey("no-store")
+                   && (!getFreshnessLifetime().isZero() || header("ETag").isPresent() || header("Last-Modified").isPresent());
+        }
 
         public Response validate2xxOK() {
             Constraint.equals(responseCode / 100, 2, "responseCode")
@@ -174,27 +358,52 @@ public final class REST {
         }
     }
 
-    public static final REST Default = new REST(Jackson.JSON, new Cache<>(Duration.ofMinutes(10)), new Function<>() {
+    public static final REST Default = new REST(Jackson.JSON, null, new HttpExecutor());
+
+    /**
+     * Executes requests with a {@link HttpClient}.
+     * Response bodies are parsed while they are being received, and request bodies are written as they are
+     * serialized, so neither is held in memory as a whole.
+     */
+    private static final class HttpExecutor implements Function<Request, CompletableFuture<Response>> {
         private final HttpClient client = HttpClient.newHttpClient();
+        private final Executor   parser = Executors.newVirtualThreadPerTaskExecutor();
 
         @Override
         public CompletableFuture<Response> apply(Request request) {
+            return send(request, HttpResponse.BodyHandlers.ofInputStream()).thenApplyAsync(response -> {
+                DataNode body;
+                try (var in = response.body()) {
+                    body = response.statusCode() / 100 != 2 ? DataNode.of(null) : parse(request.serializer, in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read response body of " + request, e);
+                }
+                return Default.new Response(request, response.statusCode(), body, response.headers().map());
+            }, parser).thenCompose(request::handleRedirect);
+        }
+
+        private <B> CompletableFuture<HttpResponse<B>> send(Request request, HttpResponse.BodyHandler<B> handler) {
             var pub = List.of(Method.GET, Method.OPTIONS, Method.TRACE).contains(request.method) || request.body == null
                       ? HttpRequest.BodyPublishers.noBody()
                       : request.body instanceof DataNode.Plain plain
                         ? HttpRequest.BodyPublishers.ofByteArray(plain.toBytes())
-                        : HttpRequest.BodyPublishers.ofString(request.body.toSerializedString());
+                        : HttpRequest.BodyPublishers.ofInputStream(request.body::toInputStream);
             var req = HttpRequest.newBuilder().uri(request.uri).method(request.method.name(), pub);
             request.headers.forEach(req::header);
             req.header("Content-Type",
                     request.body == null ? "application/json" : request.body.getMimeType().toString());
-            var res = HttpResponse.BodyHandlers.ofString();
-            return client.sendAsync(req.build(), res).thenApply(response -> {
-                var body = response.body().isBlank() || response.statusCode() / 100 != 2
-                           ? DataNode.of(null)
-                           : request.serializer.parse(response.body());
-                return Default.new Response(request, response.statusCode(), body, response.headers().map());
-            }).thenCompose(request::handleRedirect);
+            return client.sendAsync(req.build(), handler);
+        }
+
+        private static DataNode parse(Serializer<? extends DataNode> serializer, InputStream body) throws IOException {
+            var in = new PushbackInputStream(body, 1);
+            int first;
+            do first = in.read(); while (first != -1 && Character.isWhitespace(first));
+            if (first == -1) return DataNode.of(null);
+            in.unread(first);
+            return serializer.parse(in);
         }
-    });
+    }
+
+    private record Flight(URI uri, Map<String, String> headers) {}
 }
@@ -1,6 +1,10 @@
 package org.comroid.api.net.luckperms;
 
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 import lombok.experimental.NonFinal;
 import org.comroid.api.data.seri.DataNode;
@@ -12,19 +16,35 @@ import org.comroid.api.net.luckperms.component.TracksApi;
 import org.comroid.api.net.luckperms.component.UserApi;
 import org.comroid.api.net.luckperms.model.LuckPermsApiCore;
 import org.comroid.api.tree.Component;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Value
-@Builder
 @NonFinal
 public class LuckPermsApiWrapper extends Component.Base implements LuckPermsApiCore {
-    @lombok.Builder.Default REST rest = REST.Default;
+    REST           rest;
     String         baseUrl;
     Authentication credentials;
+    @Getter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    Map<String, CompletableFuture<DataNode>> inFlight = new ConcurrentHashMap<>();
 
-    {
-        addChildren(new UserApi(this),
+    /**
+     * @param rest     the REST client to use; {@code null} for {@link REST#Default}
+     * @param cacheTtl how long user lookups are cached; {@code null} for {@link UserApi#DefaultCacheTtl}
+     */
+    @Builder
+    public LuckPermsApiWrapper(
+            @Nullable REST rest, String baseUrl, Authentication credentials, @Nullable Duration cacheTtl
+    ) {
+        this.rest        = rest == null ? REST.Default : rest;
+        this.baseUrl     = baseUrl;
+        this.credentials = credentials;
+
+        addChildren(new UserApi(this, cacheTtl == null ? UserApi.DefaultCacheTtl : cacheTtl),
                 new GroupsApi(this),
                 new TracksApi(this),
                 //todo: new ActionsApi(this),
@@ -39,10 +59,28 @@ public class LuckPermsApiWrapper extends Component.Base implements LuckPermsApiC
                 .addHeader("Authorization", credentials.toBearerTokenHeader().getValue());
     }
 
+    /**
+     * Identical requests that are in flight at the same time share one round-trip.
+     */
     @Override
     public CompletableFuture<DataNode> get(String path) {
-        return request(REST.Method.GET, path).execute()
-                .thenApply(REST.Response::validate2xxOK)
-                .thenApply(REST.Response::getBody);
+        var future  = new CompletableFuture<DataNode>();
+        var running = inFlight.putIfAbsent(path, future);
+        if (running != null) return running.copy();
+
+        CompletableFuture<DataNode> exchange;
+        try {
+            exchange = request(REST.Method.GET, path).execute()
+                    .thenApply(REST.Response::validate2xxOK)
+                    .thenApply(REST.Response::getBody);
+        } catch (Throwable t) {
+            exchange = CompletableFuture.failedFuture(t);
+        }
+        exchange.whenComplete((data, t) -> {
+            inFlight.remove(path, future);
+            if (t != null) future.completeExceptionally(t);
+            else future.complete(data);
+        });
+        return future.copy();
     }
 }
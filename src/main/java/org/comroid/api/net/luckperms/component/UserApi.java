@@ -1,7 +1,13 @@
 package org.comroid.api.net.luckperms.component;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import lombok.Value;
 import org.comroid.api.data.seri.DataNode;
+import org.comroid.api.func.util.Event;
+import org.comroid.api.map.Cache;
 import org.comroid.api.net.luckperms.model.LuckPermsApiComponent;
 import org.comroid.api.net.luckperms.model.LuckPermsApiCore;
 import org.comroid.api.net.luckperms.model.ObjectRepository;
@@ -15,16 +21,59 @@ import org.comroid.api.net.luckperms.model.user.UserData;
 import org.comroid.api.net.luckperms.model.user.UserSearchResult;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
 
+import static org.comroid.api.Polyfill.*;
+
+/**
+ * Lookups of a user are cached per user until the cache TTL passes or the user is {@linkplain #invalidate(UUID)
+ * invalidated}; concurrent identical lookups share one request, and failed lookups are not cached.
+ */
 @Value
 @SuppressWarnings("unused")
 public class UserApi extends LuckPermsApiComponent implements NodeContainer<UUID>, ObjectRepository<UUID, UserData> {
+    public static final Duration DefaultCacheTtl = Duration.ofSeconds(30);
+    public static final int      BulkConcurrency = 16;
+
+    @Getter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    Cache<UUID, Map<String, CompletableFuture<?>>> cache;
+
     public UserApi(LuckPermsApiCore lpApi) {
+        this(lpApi, DefaultCacheTtl);
+    }
+
+    public UserApi(LuckPermsApiCore lpApi, Duration cacheTtl) {
         super(lpApi);
+        this.cache = Cache.<UUID, Map<String, CompletableFuture<?>>>builder()
+                .maximumSize(8192)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    public void invalidate(UUID uniqueId) {
+        cache.remove(uniqueId);
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    /**
+     * Invalidates every user that is published on the given bus, e.g. from a LuckPerms user data update.
+     */
+    public Event.Listener<UUID> invalidateOn(Event.Bus<UUID> bus) {
+        return bus.subscribeData(this::invalidate);
     }
 
     @Override
@@ -40,7 +89,7 @@ public class UserApi extends LuckPermsApiComponent implements NodeContainer<UUID
 
     @Override
     public CompletableFuture<UserData> get(UUID uniqueId) {
-        return getLpApi().get("/user/" + uniqueId).thenApply(data -> data.as(UserData.class).assertion());
+        return cached(uniqueId, "/user/" + uniqueId, data -> data.as(UserData.class).assertion());
     }
 
     @lombok.Builder(builderMethodName = "lookup", buildMethodName = "execute", builderClassName = "LookupQuery")
@@ -91,20 +140,100 @@ public class UserApi extends LuckPermsApiComponent implements NodeContainer<UUID
 
     @Override
     public CompletableFuture<Collection<Node>> getNodes(UUID uniqueId) {
-        return getLpApi().get("/user/" + uniqueId + "/nodes")
-                .thenApply(data -> data.asArray().stream().map(node -> node.as(Node.class).assertion())
-
-                        .toList());
+        return cached(uniqueId,
+                "/user/" + uniqueId + "/nodes",
+                data -> data.asArray().stream().map(node -> node.as(Node.class).assertion()).toList());
     }
 
     @Override
     public CompletableFuture<Metadata> getMetadata(UUID uniqueId) {
-        return getLpApi().get("/user/" + uniqueId + "/meta").thenApply(data -> data.as(Metadata.class).assertion());
+        return cached(uniqueId, "/user/" + uniqueId + "/meta", data -> data.as(Metadata.class).assertion());
     }
 
     @Override
     public CompletableFuture<PermissionCheckResult> checkPermission(UUID uniqueId, CharSequence permission) {
-        return getLpApi().get("/user/" + uniqueId + "/permission-check?permission=" + permission)
-                .thenApply(data -> data.as(PermissionCheckResult.class).assertion());
+        return cached(uniqueId,
+                "/user/" + uniqueId + "/permission-check?permission=" + permission,
+                data -> data.as(PermissionCheckResult.class).assertion());
+    }
+
+    public CompletableFuture<Map<UUID, Collection<Node>>> getNodes(Collection<UUID> uniqueIds) {
+        return bulk(uniqueIds, this::getNodes);
+    }
+
+    public CompletableFuture<Map<UUID, Metadata>> getMetadata(Collection<UUID> uniqueIds) {
+        return bulk(uniqueIds, this::getMetadata);
+    }
+
+    public CompletableFuture<Map<UUID, PermissionCheckResult>> checkPermission(
+            Collection<UUID> uniqueIds,
+            CharSequence permission
+    ) {
+        return bulk(uniqueIds, uniqueId -> checkPermission(uniqueId, permission));
+    }
+
+    private <T> CompletableFuture<T> cached(UUID uniqueId, String path, Function<DataNode, T> mapper) {
+        var lookups = cache.getIfPresent(uniqueId);
+        if (lookups == null) {
+            var created = new ConcurrentHashMap<String, CompletableFuture<?>>();
+            lookups = Objects.requireNonNullElse(cache.putIfAbsent(uniqueId, created), created);
+        }
+
+        var created = new boolean[1];
+        var future = lookups.computeIfAbsent(path, $ -> {
+            created[0] = true;
+            return getLpApi().get(path).thenApply(mapper);
+        });
+        if (created[0]) {
+            final var owner = lookups;
+            future.whenComplete((result, t) -> {
+                if (t != null) owner.remove(path, future);
+            });
+        }
+        // callers must not be able to complete the cached future
+        return uncheckedCast(future.copy());
+    }
+
+    /**
+     * Runs the lookup for every id, with at most {@link #BulkConcurrency} lookups in flight at once.
+     *
+     * @return the results in iteration order of {@code uniqueIds}; fails if any lookup fails
+     */
+    private <T> CompletableFuture<Map<UUID, T>> bulk(
+            Collection<UUID> uniqueIds,
+            Function<UUID, CompletableFuture<T>> lookup
+    ) {
+        var ids     = new LinkedHashSet<>(uniqueIds);
+        var queue   = new ConcurrentLinkedQueue<>(ids);
+        var results = new ConcurrentHashMap<UUID, T>();
+        var workers = new CompletableFuture<?>[Math.min(BulkConcurrency, ids.size())];
+        for (var i = 0; i < workers.length; i++)
+            workers[i] = drain(queue, lookup, results);
+        return CompletableFuture.allOf(workers).thenApply($ -> {
+            var map = new LinkedHashMap<UUID, T>();
+            ids.forEach(id -> map.put(id, results.get(id)));
+            return map;
+        });
+    }
+
+    private <T> CompletableFuture<Void> drain(
+            Queue<UUID> queue, Function<UUID, CompletableFuture<T>> lookup,
+            Map<UUID, T> results
+    ) {
+        UUID uniqueId;
+        // cached results complete immediately; only chain for pending lookups to keep the stack flat
+        while ((uniqueId = queue.poll()) != null) {
+            var future = lookup.apply(uniqueId);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                results.put(uniqueId, future.join());
+                continue;
+            }
+            final var id = uniqueId;
+            return future.thenCompose(result -> {
+                results.put(id, result);
+                return drain(queue, lookup, results);
+            });
+        }
+        return CompletableFuture.completedFuture(null);
     }
 }
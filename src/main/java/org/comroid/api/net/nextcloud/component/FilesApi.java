@@ -1,8 +1,14 @@
 package org.comroid.api.net.nextcloud.component;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import lombok.ToString;
 import lombok.Value;
 import org.comroid.annotations.Default;
 import org.comroid.api.data.seri.DataNode;
+import org.comroid.api.map.Cache;
 import org.comroid.api.net.REST;
 import org.comroid.api.net.nextcloud.model.OcsApiComponent;
 import org.comroid.api.net.nextcloud.model.OcsApiCore;
@@ -11,43 +17,84 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
 @Value
 public class FilesApi extends OcsApiComponent {
+    public static final  int      DefaultChunkSize   = 10 << 20;
+    public static final  int      UploadParallelism  = 4;
+    public static final  int      ChunkRetries       = 2;
+    private static final Executor Uploader           = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Getter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+    Cache<String, Boolean> knownDirectories = Cache.<String, Boolean>builder()
+            .maximumSize(1024)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
     public FilesApi(OcsApiCore ocsApi) {
         super(ocsApi);
     }
 
+    /**
+     * Creates the directory and all of its parents, one after another.
+     * Directories that were created or found to exist recently are skipped.
+     */
     public CompletableFuture<?> mkdirs(String path) {
-        var split = path.split("/");
-        IntStream.range(0, split.length)
-                .mapToObj(i -> split[0] + '/' + IntStream.rangeClosed(1, i)
-                        .mapToObj(off -> split[off])
-                        .collect(Collectors.joining("/")))
-                .forEach(this::mkdir);
-
-        return CompletableFuture.allOf(Arrays.stream(path.split("/"))
-                .map(this::mkdir)
-                .toArray(CompletableFuture[]::new));
+        CompletableFuture<?> future = CompletableFuture.completedFuture(null);
+        var                  prefix = new StringBuilder();
+        for (var segment : path.split("/")) {
+            if (segment.isBlank()) continue;
+            if (!prefix.isEmpty()) prefix.append('/');
+            prefix.append(segment);
+            var directory = prefix.toString();
+            if (!knownDirectories.containsKey(directory)) future = future.thenCompose($ -> ensureDirectory(directory));
+        }
+        return future;
     }
 
     public CompletableFuture<?> mkdir(String path) {
-        return getOcsApi().request(REST.Method.MKCOL,
-                "/remote.php/dav/files/" + getOcsApi().getCredentials().getUsername() + '/' + path.replaceAll(" ",
-                        "%20")).execute().thenApply(REST.Response::validate2xxOK);
+        return getOcsApi().request(REST.Method.MKCOL, filesPath(path))
+                .execute()
+                .thenApply(REST.Response::validate2xxOK)
+                .thenApply(response -> {
+                    knownDirectories.put(path, true);
+                    return response;
+                });
     }
 
+    /**
+     * Uploads the data without holding it in memory as a whole.
+     * Data that fits into a single chunk is uploaded with one request, anything larger as a {@link ChunkedUpload}.
+     *
+     * @throws IOException never; read errors complete the returned future exceptionally. Declared for source compatibility
+     */
     public CompletableFuture<?> upload(String path, InputStream data) throws IOException {
-        return getOcsApi().request(REST.Method.PUT,
-                        "/remote.php/dav/files/" + getOcsApi().getCredentials().getUsername() + '/' + path.replaceAll(" ",
-                                "%20"))
-                .setBody(DataNode.bytes(data.readAllBytes()))
-                .execute()
-                .thenApply(REST.Response::validate2xxOK);
+        return upload(new ChunkedUpload(path), data);
+    }
+
+    /**
+     * Starts or resumes a chunked upload; chunks that were already uploaded are skipped in {@code data}.
+     * At most {@link #UploadParallelism} chunks are uploaded at once, and failed chunks are retried
+     * {@link #ChunkRetries} times; if a chunk still fails, the upload can be resumed with the same handle.
+     */
+    public CompletableFuture<ChunkedUpload> upload(ChunkedUpload upload, InputStream data) {
+        return CompletableFuture.supplyAsync(() -> {
+            transfer(upload, data);
+            return upload;
+        }, Uploader);
     }
 
     public CompletableFuture<?> share(
@@ -63,4 +110,126 @@ public class FilesApi extends OcsApiComponent {
                 .execute()
                 .thenApply(REST.Response::validate2xxOK);
     }
+
+    private CompletableFuture<?> ensureDirectory(String path) {
+        return getOcsApi().request(REST.Method.MKCOL, filesPath(path)).execute().thenApply(response -> {
+            // 405: the directory already exists
+            if (response.getResponseCode() != 405) response.validate2xxOK();
+            knownDirectories.put(path, true);
+            return response;
+        });
+    }
+
+    @SneakyThrows
+    private void transfer(ChunkedUpload upload, InputStream data) {
+        var chunk = data.readNBytes(upload.chunkSize);
+        if (chunk.length < upload.chunkSize && !upload.started.get()) {
+            // small enough for a single request
+            getOcsApi().request(REST.Method.PUT, filesPath(upload.path))
+                    .setBody(DataNode.bytes(chunk))
+                    .execute()
+                    .thenApply(REST.Response::validate2xxOK)
+                    .join();
+            return;
+        }
+
+        var destination = getOcsApi().getBaseUrl() + filesPath(upload.path);
+        if (!upload.started.get()) {
+            getOcsApi().request(REST.Method.MKCOL, uploadPath(upload))
+                    .addHeader("Destination", destination)
+                    .execute()
+                    .thenApply(REST.Response::validate2xxOK)
+                    .join();
+            upload.started.set(true);
+        }
+
+        var  permits = new Semaphore(UploadParallelism);
+        var  failure = new AtomicReference<Throwable>();
+        var  pending = new ArrayList<CompletableFuture<?>>();
+        var  index   = 1;
+        long total   = 0;
+        while (chunk.length > 0 && failure.get() == null) {
+            total += chunk.length;
+            if (!upload.completed.contains(index)) {
+                permits.acquire();
+                final var number = index;
+                pending.add(putChunk(upload, number, chunk, destination, ChunkRetries).whenComplete((response, t) -> {
+                    permits.release();
+                    if (t != null) failure.compareAndSet(null, t);
+                    else upload.completed.add(number);
+                }));
+            }
+            index++;
+            chunk = data.readNBytes(upload.chunkSize);
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+        getOcsApi().request(REST.Method.MOVE, uploadPath(upload) + "/.file")
+                .addHeader("Destination", destination)
+                .addHeader("OC-Total-Length", String.valueOf(total))
+                .execute()
+                .thenApply(REST.Response::validate2xxOK)
+                .join();
+    }
+
+    private CompletableFuture<REST.Response> putChunk(
+            ChunkedUpload upload, int number, byte[] chunk, String destination,
+            int retries
+    ) {
+        return getOcsApi().request(REST.Method.PUT, uploadPath(upload) + '/' + number)
+                .addHeader("Destination", destination)
+                .setBody(DataNode.bytes(chunk))
+                .execute()
+                .thenApply(REST.Response::validate2xxOK)
+                .handle((response, t) -> t == null
+                                         ? CompletableFuture.completedFuture(response)
+                                         : retries > 0
+                                           ? putChunk(upload, number, chunk, destination, retries - 1)
+                                           : CompletableFuture.<REST.Response>failedFuture(t))
+                .thenCompose(Function.identity());
+    }
+
+    private String filesPath(String path) {
+        return "/remote.php/dav/files/" + getOcsApi().getCredentials().getUsername() + '/' + path.replaceAll(" ", "%20");
+    }
+
+    private String uploadPath(ChunkedUpload upload) {
+        return "/remote.php/dav/uploads/" + getOcsApi().getCredentials().getUsername() + '/' + upload.transferId;
+    }
+
+    /**
+     * Handle to a Nextcloud chunked upload (v2); keep it to resume the upload after a failure.
+     */
+    @Value
+    public static class ChunkedUpload {
+        String path;
+        String transferId;
+        int    chunkSize;
+        @Getter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+        Set<Integer>  completed = ConcurrentHashMap.newKeySet();
+        @Getter(AccessLevel.NONE) @ToString.Exclude @EqualsAndHashCode.Exclude
+        AtomicBoolean started   = new AtomicBoolean();
+
+        public ChunkedUpload(String path) {
+            this(path, DefaultChunkSize);
+        }
+
+        public ChunkedUpload(String path, int chunkSize) {
+            this(path, "upload-" + UUID.randomUUID(), chunkSize);
+        }
+
+        public ChunkedUpload(String path, String transferId, int chunkSize) {
+            if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+            this.path       = path;
+            this.transferId = transferId;
+            this.chunkSize  = chunkSize;
+        }
+
+        /**
+         * @return the numbers of the chunks that were uploaded, starting at {@code 1}
+         */
+        public Set<Integer> getCompletedChunks() {
+            return Collections.unmodifiableSet(completed);
+        }
+    }
 }
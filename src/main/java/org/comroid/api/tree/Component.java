@@ -35,18 +35,19 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
-import java.text.MessageFormat;
 import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
 import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -116,14 +117,28 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
         return dependencies(getClass());
     }
 
+    /**
+     * Initializes this tree on the calling thread, then ticks it on {@code scheduler}.
+     *
+     * @throws Initializable.InitFailed with the failure that came first in initialization order; the tree does not tick
+     */
     default UncheckedCloseable execute(ScheduledExecutorService scheduler, Duration tickRate) {
-        var task = scheduler.scheduleAtFixedRate(() -> {
-            if (testState(State.PreInit)) initialize();
-            tick();
-        }, 0, tickRate.toMillis(), TimeUnit.MILLISECONDS);
+        if (testState(State.PreInit)) {
+            var report = LifeCycleScheduler.Default.initialize(this);
+            if (!report.isSuccessful()) throw new Initializable.InitFailed("Could not initialize " + getFullName(),
+                    report.getTimings()
+                            .keySet()
+                            .stream()
+                            .map(report.getFailures()::get)
+                            .filter(Objects::nonNull)
+                            .findFirst()
+                            .orElseGet(() -> report.getFailures().values().iterator().next()));
+        }
+        var ticks = TickScheduler.builder().root(this).tickRate(tickRate).scheduler(scheduler).build();
+        ticks.start();
         final UncheckedCloseable closeable = () -> {
-            task.cancel(true);
-            terminate();
+            ticks.close();
+            LifeCycleScheduler.Default.terminate(this);
         };
         Runtime.getRuntime().addShutdownHook(new Thread(closeable::close));
         return closeable;
@@ -227,11 +242,15 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
     @Getter
     @Ignore
     class Base extends Container.Base implements Component {
+        private static final Logger TickLog = Log.get(Component.Base.class);
+
         protected                 boolean   enabled       = true;
         private                   State     currentState  = State.PreInit;
         private                   State     previousState = State.PreInit;
         private @Setter @Nullable Component parent;
         private @Setter @Nullable String    name;
+        @Getter(AccessLevel.NONE)
+        private final AtomicLong revision = new AtomicLong();
 
         public Base(Object... children) {
             this((Component) null, children);
@@ -256,11 +275,33 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
             return name != null ? name : "%s#%x".formatted(StackTraceUtils.lessSimpleName(getClass()), hashCode());
         }
 
+        /**
+         * Increases whenever the state or the children of this component, or of any component below it, change.
+         */
+        long revision() {
+            return revision.get();
+        }
+
         @Override
         public Object addChildren(Object @NotNull ... children) {
             for (Object child : children)
                 if (child instanceof Component) ((Component) child).setParent(this);
-            return super.addChildren(children);
+            var result = super.addChildren(children);
+            changed();
+            return result;
+        }
+
+        @Override
+        public int removeChildren(Object @NotNull ... children) {
+            var result = super.removeChildren(children);
+            changed();
+            return result;
+        }
+
+        @Override
+        public void clearChildren() {
+            super.clearChildren();
+            changed();
         }
 
         @Override
@@ -276,7 +317,7 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
                 if (!testState(State.PreInit)) return;
                 Log.at(Level.FINE, "Initializing " + this);
 
-                injectDependencies();
+                injectDependencies(resolveDependencies());
                 var count = runOnDependencies(Component::initialize);
 
                 $initialize();
@@ -295,7 +336,7 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
         public final synchronized void tick() {
             if (!testState(State.Active)) return;
             try {
-                Log.at(Level.FINER, MessageFormat.format("Ticking {0}", this));
+                if (TickLog.isLoggable(Level.FINER)) TickLog.finer("Ticking " + this);
                 $tick();
                 runOnChildren(Tickable.class, Tickable::tick, it -> test(it, State.Active));
             } catch (Throwable t) {
@@ -345,6 +386,45 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
         protected void $earlyTerminate() {
         }
 
+        /*
+         * single-component lifecycle steps for LifeCycleScheduler, which takes care of ordering
+         * dependencies and child components itself
+         */
+
+        final synchronized void initializeSelf(List<Map.Entry<Dependency, Component>> dependencies) throws Throwable {
+            if (!testState(State.PreInit)) return;
+            Log.at(Level.FINE, "Initializing " + this);
+            injectDependencies(dependencies);
+            $initialize();
+            pushState(State.Init);
+        }
+
+        final synchronized void lateInitializeSelf() {
+            if (currentState != State.Init) return;
+            pushState(State.LateInit);
+            $lateInitialize();
+            pushState(State.Active);
+        }
+
+        final synchronized void tickSelf() {
+            if (testState(State.Active)) $tick();
+        }
+
+        final synchronized void earlyTerminateSelf() {
+            if (testState(State.PostTerminate)) return;
+            pushState(State.EarlyTerminate);
+            $earlyTerminate();
+        }
+
+        final synchronized void terminateSelf() throws Exception {
+            if (testState(State.PostTerminate)) return;
+            pushState(State.Terminate);
+            $terminate();
+            pushState(State.PostTerminate);
+            cleanupChildren();
+            close();
+        }
+
         protected void $lateInitialize() {
         }
 
@@ -357,8 +437,16 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
         protected void $terminate() {
         }
 
-        private void injectDependencies() {
-            dependencies().stream().filter(dep -> dep.prop != null && dep.prop.canSet()).<Map.Entry<Dependency, Component>>flatMap(dep -> {
+        /**
+         * Finds the component that satisfies each settable {@link Inject} dependency, and every component that satisfies
+         * each {@link Requires} dependency.
+         *
+         * @throws Constraint.UnmetError if a required injection cannot be satisfied
+         */
+        final List<Map.Entry<Dependency, Component>> resolveDependencies() {
+            return dependencies().stream().<Map.Entry<Dependency, Component>>flatMap(dep -> {
+                if (dep.prop == null) return components(dep.type).map(it -> new AbstractMap.SimpleImmutableEntry<>(dep, (Component) it));
+                if (!dep.prop.canSet()) return empty();
                 var results = components(dep.type).toList();
                 if (results.size() > 1) {
                     final var names = dep.name.isEmpty() ? Stream.concat(Stream.of(dep.prop.getName()), dep.prop.getAliases().stream())
@@ -380,7 +468,11 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
                 var result = results.get(0);
                 if (results.size() > 1) Log.at(Level.WARNING, "More than one result for " + dep + "; using " + result);
                 return Stream.of(new AbstractMap.SimpleImmutableEntry<>(dep, result));
-            }).forEach(e -> Wrap.of(e.getKey()).map(Dependency::getProp).map(DataStructure.Property::getSetter).filter(func -> {
+            }).toList();
+        }
+
+        private void injectDependencies(List<Map.Entry<Dependency, Component>> resolved) {
+            resolved.stream().filter(e -> e.getKey().prop != null).forEach(e -> Wrap.of(e.getKey()).map(Dependency::getProp).map(DataStructure.Property::getSetter).filter(func -> {
                 var success = func.makeAccessible();
                 if (!success) Log.at(Level.WARNING, "Unable to make setter accessible: " + func);
                 return success;
@@ -394,10 +486,20 @@ public interface Component extends Container, LifeCycle, Tickable, EnabledState,
             if (currentState == state) return false; // avoid pushing same state twice
             previousState = currentState;
             currentState = state;
+            changed();
             Log.at(Level.FINE, getName() + " changed into state: " + currentState);
             return true;
         }
 
+        private void changed() {
+            // ancestors count the change too, so that a tick scheduler only needs to watch its root
+            Component component = this;
+            do {
+                if (component instanceof Base base) base.revision.incrementAndGet();
+                component = component.getParent();
+            } while (component != null && component != this);
+        }
+
         private long runOnDependencies(final ThrowingConsumer<Component, Throwable> action) {
             if (getParent() == null) return 0L;
             final var wrap = action.wrap();
@@ -12,18 +12,28 @@ import org.comroid.api.func.Specifiable;
 import org.comroid.api.func.exc.ThrowingConsumer;
 import org.comroid.api.func.ext.Wrap;
 import org.comroid.api.func.util.Streams;
+import org.comroid.api.java.ReflectionHelper;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.ApiStatus.OverrideOnly;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractSet;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
@@ -72,12 +82,12 @@ public interface Container extends Stoppable, SelfCloseable, Specifiable<Contain
     }
 
     class Base implements Container, Reloadable {
-        @Ignore @Getter final Set<Object>                              children;
+        @Ignore @Getter final Registry                                 children;
         @Ignore @Getter
         private final         AtomicReference<CompletableFuture<Void>> closed = new AtomicReference<>(new CompletableFuture<>());
 
         public Base(Object... children) {
-            this.children = new HashSet<>(Set.of(children));
+            this.children = new Registry(children);
         }
 
         @Ignore
@@ -92,9 +102,7 @@ public interface Container extends Stoppable, SelfCloseable, Specifiable<Contain
 
         @Contract("_ -> this")
         public Object addChildren(@Nullable Object @NotNull ... children) {
-            Stream.of(children)
-                    .filter(Objects::nonNull)
-                    .forEach(this.children::add);
+            this.children.addAll(Arrays.asList(children));
             return this;
         }
 
@@ -110,6 +118,12 @@ public interface Container extends Stoppable, SelfCloseable, Specifiable<Contain
             children.clear();
         }
 
+        @Override
+        public <T> Stream<T> streamChildren(@Nullable Class<? super T> type) {
+            return Stream.concat(children.stream(type),
+                    streamOwnChildren().flatMap(Streams.cast(type == null ? Object.class : type)).map(Polyfill::uncheckedCast));
+        }
+
         @Override
         @SneakyThrows
         public void start() {
@@ -175,6 +189,138 @@ public interface Container extends Stoppable, SelfCloseable, Specifiable<Contain
         }
     }
 
+    /**
+     * The children of a {@link Base}: a concurrent set that indexes its elements by their class hierarchy, so that typed
+     * lookups do not need to scan all children.
+     * Reads and iteration work on an immutable snapshot; writes are serialized and replace the snapshot.
+     */
+    @ApiStatus.Internal
+    final class Registry extends AbstractSet<Object> {
+        private static final Object[] Empty = new Object[0];
+
+        private final    Map<Object, Object> members  = new ConcurrentHashMap<>();
+        private volatile Snapshot            snapshot = new Snapshot(Empty, Map.of());
+
+        public Registry(Object... children) {
+            addAll(Arrays.asList(children));
+        }
+
+        /**
+         * @return the children that are instances of {@code type}, in insertion order
+         */
+        public <T> Stream<T> stream(@Nullable Class<? super T> type) {
+            var snapshot = this.snapshot;
+            return Polyfill.uncheckedCast(Arrays.stream(type == null ? snapshot.all() : snapshot.byType()
+                    .getOrDefault(type, Empty)));
+        }
+
+        @Override
+        public @NotNull Iterator<Object> iterator() {
+            final var items = snapshot.all();
+            return new Iterator<>() {
+                int index = 0;
+                Object last;
+
+                @Override
+                public boolean hasNext() {
+                    return index < items.length;
+                }
+
+                @Override
+                public Object next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return last = items[index++];
+                }
+
+                @Override
+                public void remove() {
+                    if (last == null) throw new IllegalStateException();
+                    Registry.this.remove(last);
+                    last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return snapshot.all().length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o != null && members.containsKey(o);
+        }
+
+        @Override
+        public boolean add(Object o) {
+            return addAll(Collections.singletonList(o));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return removeAll(Collections.singletonList(o));
+        }
+
+        @Override
+        public synchronized boolean addAll(@NotNull Collection<?> c) {
+            var added = new ArrayList<>();
+            for (var it : c)
+                if (it != null && members.putIfAbsent(it, it) == null) added.add(it);
+            if (added.isEmpty()) return false;
+
+            var snapshot = this.snapshot;
+            var all      = Arrays.copyOf(snapshot.all(), snapshot.all().length + added.size());
+            var byType   = new HashMap<>(snapshot.byType());
+            for (var i = 0; i < added.size(); i++) {
+                var it = added.get(i);
+                all[snapshot.all().length + i] = it;
+                for (var type : ReflectionHelper.hierarchy(it.getClass()))
+                    byType.merge(type, new Object[]{ it }, Registry::concat);
+            }
+            this.snapshot = new Snapshot(all, byType);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean removeAll(@NotNull Collection<?> c) {
+            var removed = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (var it : c) {
+                var stored = it == null ? null : members.remove(it);
+                if (stored != null) removed.add(stored);
+            }
+            if (removed.isEmpty()) return false;
+
+            var snapshot = this.snapshot;
+            var byType   = new HashMap<>(snapshot.byType());
+            for (var it : removed)
+                for (var type : ReflectionHelper.hierarchy(it.getClass()))
+                    byType.computeIfPresent(type, ($, items) -> {
+                        var remaining = without(items, removed);
+                        return remaining.length == 0 ? null : remaining;
+                    });
+            this.snapshot = new Snapshot(without(snapshot.all(), removed), byType);
+            return true;
+        }
+
+        @Override
+        public synchronized void clear() {
+            members.clear();
+            snapshot = new Snapshot(Empty, Map.of());
+        }
+
+        private static Object[] concat(Object[] a, Object[] b) {
+            var result = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, result, a.length, b.length);
+            return result;
+        }
+
+        private static Object[] without(Object[] items, Set<Object> removed) {
+            return Arrays.stream(items).filter(it -> !removed.contains(it)).toArray();
+        }
+
+        private record Snapshot(Object[] all, Map<Class<?>, Object[]> byType) {}
+    }
+
     @Getter
     @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
     class Delegate<S extends SelfCloseable> extends Base implements Owned {
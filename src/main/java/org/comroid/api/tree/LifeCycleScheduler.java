@@ -0,0 +1,260 @@
+package org.comroid.api.tree;
+
+import lombok.Builder;
+import lombok.Value;
+import org.comroid.api.func.exc.ThrowingConsumer;
+import org.comroid.api.info.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the lifecycle of a component tree as a dependency graph.
+ * <p>
+ * Every component is ordered after the components it depends on ({@link Component.Inject},
+ * {@link Component.Requires}) and after its parent, unless the parent depends on it.
+ * Independent components are initialized in parallel on the executor, and termination runs in reverse order.
+ * Dependency cycles are rejected before any component is touched.
+ */
+@Value
+public class LifeCycleScheduler {
+    public static final LifeCycleScheduler Default = new LifeCycleScheduler(null);
+
+    Executor executor;
+
+    @Builder
+    public LifeCycleScheduler(@Nullable Executor executor) {
+        this.executor = executor == null ? Executors.newVirtualThreadPerTaskExecutor() : executor;
+    }
+
+    /**
+     * Initializes and late-initializes the tree below {@code root}.
+     * A component whose initialization fails is terminated, and components that depend on it are skipped.
+     *
+     * @throws Initializable.InitFailed if the dependency graph contains a cycle
+     */
+    public Report initialize(Component root) {
+        var failures = new ConcurrentHashMap<Component, Throwable>();
+        var timings  = new ConcurrentHashMap<Component, Long>();
+        var graph    = Graph.build(root, failures);
+
+        var initialized = run(graph, false, failures, timings, component -> {
+            if (component instanceof Component.Base base) base.initializeSelf(graph.resolved().get(base));
+            else component.initialize();
+        });
+        run(graph.filter(initialized), false, failures, timings, component -> {
+            if (component instanceof Component.Base base) base.lateInitializeSelf();
+        });
+        failures.keySet().forEach(Component::terminate);
+
+        var report = new Report(graph.order()
+                .stream()
+                .filter(timings::containsKey)
+                .collect(Collectors.toMap(it -> it,
+                        it -> Duration.ofNanos(timings.get(it)),
+                        (a, b) -> a,
+                        LinkedHashMap::new)), Map.copyOf(failures));
+        Log.at(Level.FINE, "Initialized %s: %s".formatted(root, report));
+        return report;
+    }
+
+    /**
+     * Terminates the tree below {@code root}; every component terminates after the components that depend on it.
+     */
+    public Report terminate(Component root) {
+        var failures = new ConcurrentHashMap<Component, Throwable>();
+        var timings  = new ConcurrentHashMap<Component, Long>();
+        var graph    = Graph.build(root, new ConcurrentHashMap<>());
+
+        run(graph, true, failures, timings, component -> {
+            if (component instanceof Component.Base base) base.earlyTerminateSelf();
+        });
+        run(graph, true, failures, timings, component -> {
+            if (component instanceof Component.Base base) base.terminateSelf();
+            else component.terminate();
+        });
+
+        return new Report(graph.order()
+                .reversed()
+                .stream()
+                .collect(Collectors.toMap(it -> it,
+                        it -> Duration.ofNanos(timings.getOrDefault(it, 0L)),
+                        (a, b) -> a,
+                        LinkedHashMap::new)), Map.copyOf(failures));
+    }
+
+    /**
+     * Runs {@code action} on every component of the graph, each as soon as its predecessors are done.
+     * When running forward, components with a failed or skipped predecessor are skipped.
+     *
+     * @return the components the action succeeded on
+     */
+    private Set<Component> run(
+            Graph graph, boolean reverse, Map<Component, Throwable> failures, Map<Component, Long> timings,
+            ThrowingConsumer<Component, Throwable> action
+    ) {
+        var futures = new IdentityHashMap<Component, CompletableFuture<Boolean>>();
+        for (var component : reverse ? graph.order().reversed() : graph.order()) {
+            var before = (reverse ? graph.dependents() : graph.dependencies()).get(component)
+                    .stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(component, CompletableFuture.allOf(before).thenApplyAsync($ -> {
+                if (failures.containsKey(component)) return false;
+                if (!reverse) for (var each : before)
+                    if (!Boolean.TRUE.equals(each.join())) return false;
+                var start = System.nanoTime();
+                try {
+                    action.accept(component);
+                    return true;
+                } catch (Throwable t) {
+                    Log.at(Level.SEVERE, "Lifecycle of %s failed; %s".formatted(component.getName(), t.getMessage()), t);
+                    failures.put(component, t);
+                    return false;
+                } finally {
+                    timings.merge(component, System.nanoTime() - start, Long::sum);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).join();
+
+        var succeeded = Collections.newSetFromMap(new IdentityHashMap<Component, Boolean>());
+        futures.forEach((component, future) -> {
+            if (future.join()) succeeded.add(component);
+        });
+        return succeeded;
+    }
+
+    /**
+     * Per-component lifecycle timings and failures.
+     */
+    @Value
+    public static class Report {
+        Map<Component, Duration>  timings;
+        Map<Component, Throwable> failures;
+
+        public boolean isSuccessful() {
+            return failures.isEmpty();
+        }
+
+        public Duration getTotalTime() {
+            return timings.values().stream().reduce(Duration.ZERO, Duration::plus);
+        }
+    }
+
+    /**
+     * @param order        topological order; every component comes after its predecessors
+     * @param dependencies the predecessors of every component
+     * @param dependents   the successors of every component
+     * @param resolved     the resolved dependencies of every {@link Component.Base}
+     */
+    private record Graph(
+            List<Component> order, Map<Component, Set<Component>> dependencies,
+            Map<Component, Set<Component>> dependents,
+            Map<Component.Base, List<Map.Entry<Component.Dependency, Component>>> resolved
+    ) {
+        static Graph build(Component root, Map<Component, Throwable> failures) {
+            var dependencies = new IdentityHashMap<Component, Set<Component>>();
+            var dependents   = new IdentityHashMap<Component, Set<Component>>();
+            var resolved     = new IdentityHashMap<Component.Base, List<Map.Entry<Component.Dependency, Component>>>();
+            var parents      = new IdentityHashMap<Component, Component>();
+
+            // collect the tree
+            var queue = new ArrayDeque<Component>();
+            queue.add(root);
+            dependencies.put(root, identitySet());
+            while (!queue.isEmpty()) {
+                var component = queue.poll();
+                dependents.put(component, identitySet());
+                // other implementations run their own subtree
+                if (!(component instanceof Component.Base)) continue;
+                component.<Component>streamChildren(Component.class).forEach(child -> {
+                    if (dependencies.containsKey(child)) return;
+                    dependencies.put(child, identitySet());
+                    parents.put(child, component);
+                    queue.add(child);
+                });
+            }
+
+            // resolve edges
+            for (var component : dependencies.keySet()) {
+                if (component instanceof Component.Base base) {
+                    try {
+                        var deps = base.resolveDependencies();
+                        resolved.put(base, deps);
+                        for (var dep : deps)
+                            if (dependencies.containsKey(dep.getValue()) && dep.getValue() != component)
+                                dependencies.get(component).add(dep.getValue());
+                    } catch (Throwable t) {
+                        Log.at(Level.SEVERE, "Could not resolve dependencies of " + component.getName() + "; " + t.getMessage(), t);
+                        failures.put(component, t);
+                        resolved.put(base, List.of());
+                    }
+                }
+            }
+            parents.forEach((child, parent) -> {
+                if (!dependencies.get(parent).contains(child)) dependencies.get(child).add(parent);
+            });
+            dependencies.forEach((component, deps) -> deps.forEach(dep -> dependents.get(dep).add(component)));
+
+            // topological sort; whatever is left over is part of or behind a cycle
+            var order    = new ArrayList<Component>(dependencies.size());
+            var indegree = new IdentityHashMap<Component, Integer>();
+            dependencies.forEach((component, deps) -> indegree.put(component, deps.size()));
+            var ready = new ArrayDeque<Component>();
+            indegree.forEach((component, count) -> {
+                if (count == 0) ready.add(component);
+            });
+            while (!ready.isEmpty()) {
+                var component = ready.poll();
+                order.add(component);
+                for (var dependent : dependents.get(component))
+                    if (indegree.merge(dependent, -1, Integer::sum) == 0) ready.add(dependent);
+            }
+            if (order.size() != dependencies.size())
+                throw new Initializable.InitFailed("Dependency cycle between " + indegree.entrySet()
+                        .stream()
+                        .filter(e -> e.getValue() > 0)
+                        .map(e -> e.getKey().getName())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+
+            return new Graph(Collections.unmodifiableList(order), dependencies, dependents, resolved);
+        }
+
+        private static Set<Component> identitySet() {
+            return Collections.newSetFromMap(new IdentityHashMap<>());
+        }
+
+        /**
+         * The subgraph of the given components, in the same order.
+         */
+        Graph filter(Set<Component> keep) {
+            var dependencies = new IdentityHashMap<Component, Set<Component>>();
+            var dependents   = new IdentityHashMap<Component, Set<Component>>();
+            for (var component : keep) {
+                var deps = identitySet();
+                this.dependencies.get(component).stream().filter(keep::contains).forEach(deps::add);
+                dependencies.put(component, deps);
+                var next = identitySet();
+                this.dependents.get(component).stream().filter(keep::contains).forEach(next::add);
+                dependents.put(component, next);
+            }
+            return new Graph(order.stream().filter(keep::contains).toList(), dependencies, dependents, resolved);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.comroid.api.tree;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.comroid.api.info.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Ticks a component tree at a fixed rate.
+ * <p>
+ * The active components of the tree are flattened into a tick array, which is only rebuilt after a component of the
+ * tree changed its state or children. Components with a {@linkplain Tickable#getTickRate() tick rate} tick on every
+ * n-th tick, staggered across ticks; {@linkplain Tickable#isTickIndependent() independent} components tick in parallel
+ * on the executor, all others tick in tree order on the scheduler thread.
+ */
+public class TickScheduler implements UncheckedCloseable {
+    private static final Logger log = Log.get(TickScheduler.class);
+
+    private final @Getter Component                root;
+    private final @Getter Duration                 tickRate;
+    private final @Getter Histogram                latency  = new Histogram();
+    private final         LongAdder                overruns = new LongAdder();
+    private final         AtomicLong               ticks    = new AtomicLong();
+    private final         ScheduledExecutorService scheduler;
+    private final         Executor                 executor;
+    private final         boolean                  ownScheduler;
+    private final         long                     tickNanos;
+    private volatile      Entry[]                  entries  = new Entry[0];
+    private volatile      long                     revision = -1;
+    private volatile @Nullable ScheduledFuture<?>  task;
+    private volatile      boolean                  closed;
+
+    @Builder
+    public TickScheduler(
+            Component root, Duration tickRate, @Nullable ScheduledExecutorService scheduler,
+            @Nullable Executor executor
+    ) {
+        this.root         = root;
+        this.tickRate     = tickRate;
+        this.tickNanos    = tickRate.toNanos();
+        this.ownScheduler = scheduler == null;
+        this.scheduler    = scheduler == null ? Executors.newSingleThreadScheduledExecutor() : scheduler;
+        this.executor     = executor == null ? Executors.newVirtualThreadPerTaskExecutor() : executor;
+    }
+
+    public synchronized TickScheduler start() {
+        if (task == null && !closed) task = scheduler.scheduleAtFixedRate(this::tick, 0, tickNanos, TimeUnit.NANOSECONDS);
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (task != null) task.cancel(false);
+        if (ownScheduler) scheduler.shutdown();
+    }
+
+    public long getTickCount() {
+        return ticks.get();
+    }
+
+    /**
+     * @return how many ticks took longer than the tick rate
+     */
+    public long getOverruns() {
+        return overruns.sum();
+    }
+
+    /**
+     * @return the tick latency of the given object, if it is part of the current tick array
+     */
+    public @Nullable Histogram getLatency(Tickable target) {
+        for (var entry : entries)
+            if (entry.target == target) return entry.latency;
+        return null;
+    }
+
+    /**
+     * @return how many ticks of the given object took longer than its tick rate
+     */
+    public long getOverruns(Tickable target) {
+        for (var entry : entries)
+            if (entry.target == target) return entry.overruns.sum();
+        return 0;
+    }
+
+    /**
+     * Runs a single tick; called by the scheduler.
+     */
+    public void tick() {
+        try {
+            var n       = ticks.getAndIncrement();
+            var start   = System.nanoTime();
+            var entries = refresh();
+
+            List<CompletableFuture<Void>> parallel = null;
+            for (var entry : entries)
+                if (entry.independent && entry.isDue(n)) {
+                    if (parallel == null) parallel = new ArrayList<>();
+                    parallel.add(CompletableFuture.runAsync(entry, executor));
+                }
+            for (var entry : entries)
+                if (!entry.independent && entry.isDue(n)) entry.run();
+            if (parallel != null) parallel.forEach(CompletableFuture::join);
+
+            var elapsed = System.nanoTime() - start;
+            latency.record(elapsed);
+            if (elapsed > tickNanos) {
+                overruns.increment();
+                if (log.isLoggable(Level.FINE))
+                    log.fine("Tick %d of %s overran by %s".formatted(n, root, Duration.ofNanos(elapsed - tickNanos)));
+            }
+        } catch (Throwable t) {
+            // an exception would cancel the scheduled task
+            log.log(Level.WARNING, "Error in tick for " + root, t);
+        }
+    }
+
+    private Entry[] refresh() {
+        // other roots do not count their changes, so their entries are collected on every tick
+        var revision = root instanceof Component.Base base ? base.revision() : -1;
+        if (revision != -1 && revision == this.revision) return entries;
+
+        var previous = new IdentityHashMap<Tickable, Entry>();
+        for (var entry : entries)
+            previous.put(entry.target, entry);
+        var collect = new ArrayList<Entry>();
+        collect(root, previous, collect, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        var entries = collect.toArray(Entry[]::new);
+        this.entries  = entries;
+        this.revision = revision;
+        return entries;
+    }
+
+    private void collect(Component component, IdentityHashMap<Tickable, Entry> previous, List<Entry> collect, Set<Component> visited) {
+        if (!visited.add(component) || !component.isActive()) return;
+        var entry = previous.get(component);
+        collect.add(entry != null ? entry : new Entry(component, collect.size()));
+        // other implementations tick their own subtree
+        if (component instanceof Component.Base)
+            component.<Component>streamChildren(Component.class).forEach(child -> collect(child, previous, collect, visited));
+    }
+
+    private final class Entry implements Runnable {
+        private final Tickable  target;
+        private final boolean   independent;
+        private final long      period;
+        private final long      offset;
+        private final Histogram latency  = new Histogram();
+        private final LongAdder overruns = new LongAdder();
+
+        private Entry(Tickable target, int index) {
+            var rate = target.getTickRate();
+            this.target      = target;
+            this.independent = target.isTickIndependent();
+            this.period      = rate == null ? 1 : Math.max(1, Math.round((double) rate.toNanos() / tickNanos));
+            this.offset      = index % period;
+        }
+
+        private boolean isDue(long tick) {
+            return period == 1 || tick % period == offset;
+        }
+
+        @Override
+        public void run() {
+            if (target != root && target instanceof Component component && !component.isEnabled()) return;
+            var start = System.nanoTime();
+            try {
+                if (target instanceof Component.Base base) base.tickSelf();
+                else target.tick();
+            } catch (Throwable t) {
+                log.log(Level.WARNING, "Error in tick for " + target, t);
+            }
+            var elapsed = System.nanoTime() - start;
+            latency.record(elapsed);
+            if (elapsed > period * tickNanos) overruns.increment();
+        }
+    }
+
+    /**
+     * A latency histogram with power-of-two nanosecond buckets.
+     */
+    public static final class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+        private final LongAdder       count   = new LongAdder();
+        private final LongAdder       total   = new LongAdder();
+        private final AtomicLong      max     = new AtomicLong();
+
+        void record(long nanos) {
+            nanos = Math.max(nanos, 1);
+            buckets.incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos));
+            count.increment();
+            total.add(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public Duration getMax() {
+            return Duration.ofNanos(max.get());
+        }
+
+        public Duration getMean() {
+            var count = getCount();
+            return count == 0 ? Duration.ZERO : Duration.ofNanos(total.sum() / count);
+        }
+
+        /**
+         * @param percentile between {@code 0} and {@code 1}
+         * @return an upper bound of the given percentile; at most twice the actual value
+         */
+        public Duration getPercentile(double percentile) {
+            var target = (long) Math.ceil(percentile * getCount());
+            var seen   = 0L;
+            for (var i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0)
+                    return Duration.ofNanos(Math.min(i == Long.SIZE - 2 ? Long.MAX_VALUE : (1L << (i + 1)) - 1, max.get()));
+            }
+            return getMax();
+        }
+
+        @Override
+        public String toString() {
+            return "Histogram{count=%d, mean=%s, p50=%s, p99=%s, max=%s}".formatted(getCount(),
+                    getMean(),
+                    getPercentile(0.5),
+                    getPercentile(0.99),
+                    getMax());
+        }
+    }
+}
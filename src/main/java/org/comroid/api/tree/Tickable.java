@@ -1,5 +1,25 @@
 package org.comroid.api.tree;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+
 public interface Tickable {
     void tick() throws Throwable;
+
+    /**
+     * @return the interval between two ticks of this object, or {@code null} to tick at the rate of its scheduler
+     * @see TickScheduler
+     */
+    default @Nullable Duration getTickRate() {
+        return null;
+    }
+
+    /**
+     * @return whether this object may tick concurrently with the other objects of its tree
+     * @see TickScheduler
+     */
+    default boolean isTickIndependent() {
+        return false;
+    }
 }
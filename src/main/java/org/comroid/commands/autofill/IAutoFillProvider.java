@@ -1,22 +1,56 @@
 package org.comroid.commands.autofill;
 
+import org.comroid.api.map.Cache;
+import org.comroid.commands.autofill.impl.CachedAutoFillProvider;
 import org.comroid.commands.impl.CommandUsage;
+import org.jetbrains.annotations.ApiStatus;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @FunctionalInterface
 public interface IAutoFillProvider {
     static Predicate<CharSequence> stringCheck(String currentValue) {
-        return str -> {
-            if (currentValue.isBlank() || currentValue.endsWith(" ")) return true;
-            return currentValue.contains("*")
-                   // wildcard mode
-                   ? str.toString().toLowerCase().matches(currentValue.toLowerCase().replace("*", "(\\*|.*?)"))
-                   // normal filter
-                   : str.toString().toLowerCase().startsWith(currentValue.toLowerCase());
-        };
+        if (currentValue.isBlank() || currentValue.endsWith(" ")) return $ -> true;
+        if (currentValue.contains("*")) {
+            // wildcard mode
+            var pattern = Matchers.CACHE.get(currentValue);
+            return str -> pattern.matcher(str).matches();
+        }
+        // normal filter
+        return str -> str.toString().regionMatches(true, 0, currentValue, 0, currentValue.length());
     }
 
     Stream<? extends CharSequence> autoFill(CommandUsage usage, String argName, String currentValue);
+
+    /**
+     * Caches the results of this provider per typed value for the given duration.
+     * Only suitable for providers whose results do not depend on the usage, and whose results for a value are a
+     * superset of the results for any extension of that value.
+     */
+    default IAutoFillProvider cached(Duration ttl) {
+        return new CachedAutoFillProvider(this, ttl);
+    }
+
+    @ApiStatus.Internal
+    final class Matchers {
+        private static final Cache<String, Pattern> CACHE = Cache.<String, Pattern>builder()
+                .maximumSize(256)
+                .loader(Matchers::compile)
+                .build();
+
+        private Matchers() {
+            throw new UnsupportedOperationException();
+        }
+
+        private static Pattern compile(String wildcard) {
+            return Pattern.compile(Arrays.stream(wildcard.split("\\*", -1))
+                    .map(part -> part.isEmpty() ? "" : Pattern.quote(part))
+                    .collect(Collectors.joining("(\\*|.*?)")), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+        }
+    }
 }
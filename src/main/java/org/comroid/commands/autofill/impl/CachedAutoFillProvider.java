@@ -0,0 +1,55 @@
+package org.comroid.commands.autofill.impl;
+
+import lombok.Value;
+import org.comroid.api.map.Cache;
+import org.comroid.commands.autofill.IAutoFillProvider;
+import org.comroid.commands.impl.CommandUsage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Caches the results of another provider per argument and typed value.
+ * A value that is not cached yet is answered by narrowing down the results of its longest cached prefix.
+ *
+ * @see IAutoFillProvider#cached(Duration)
+ */
+@Value
+public class CachedAutoFillProvider implements IAutoFillProvider {
+    IAutoFillProvider                           delegate;
+    Cache<String, List<? extends CharSequence>> results;
+
+    public CachedAutoFillProvider(IAutoFillProvider delegate, Duration ttl) {
+        this.delegate = delegate;
+        this.results  = Cache.<String, List<? extends CharSequence>>builder()
+                .maximumSize(256)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Stream<? extends CharSequence> autoFill(CommandUsage usage, String argName, String currentValue) {
+        // one provider may serve several arguments, whose results must not mix
+        var scope = argName + '\0';
+        var value = currentValue.toLowerCase();
+        for (var i = value.length(); i >= 0; i--) {
+            var prefix = value.substring(0, i);
+            // a wildcard prefix does not cover its extensions
+            if (i < value.length() && prefix.contains("*")) continue;
+            var cached = results.getIfPresent(scope + prefix);
+            if (cached != null) return i == value.length()
+                                       ? cached.stream()
+                                       : cached.stream().filter(IAutoFillProvider.stringCheck(currentValue));
+        }
+
+        var fetched = delegate.autoFill(usage, argName, currentValue).toList();
+        results.put(scope + value, fetched);
+        return fetched.stream();
+    }
+
+    @Override
+    public IAutoFillProvider cached(Duration ttl) {
+        return delegate.cached(ttl);
+    }
+}
@@ -1,5 +1,7 @@
 package org.comroid.commands.impl;
 
+import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.ToString;
 import lombok.Value;
 import lombok.experimental.NonFinal;
@@ -32,20 +34,35 @@ import org.comroid.commands.node.Call;
 import org.comroid.commands.node.Callable;
 import org.comroid.commands.node.Group;
 import org.comroid.commands.node.Node;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.time.Duration;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -61,9 +78,14 @@ import static org.comroid.api.func.util.Streams.*;
 @NonFinal
 @ToString(of = { "id" })
 public class CommandManager extends Container.Base implements CommandInfoProvider {
-    public static final CommandResponseHandler DefaultHandler = (command, x, args) -> System.out.println(x);
+    public static final  CommandResponseHandler DefaultHandler       = (command, x, args) -> System.out.println(x);
+    private static final Executor               AutoCompleteExecutor = Executors.newVirtualThreadPerTaskExecutor();
     UUID      id        = UUID.randomUUID();
-    Set<Node> baseNodes = new HashSet<>();
+    Set<Node> baseNodes = new BaseNodes();
+    @Getter(AccessLevel.NONE) AtomicInteger                 nodeVersion  = new AtomicInteger();
+    @Getter(AccessLevel.NONE) AtomicReference<Routes>       routes       = new AtomicReference<>(Routes.compile(0, Set.of()));
+    @Getter(AccessLevel.NONE) AtomicReference<ContextCache> contextCache = new AtomicReference<>();
+    @Getter(AccessLevel.NONE) AtomicInteger                 childVersion = new AtomicInteger();
 
     @Override
     public final Set<CommandCapability> getCapabilities() {
@@ -93,10 +115,46 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
                 .build());
         else nodes = Stream.concat(groups.stream(), calls.stream()).collect(Collectors.toUnmodifiableSet());
 
-        baseNodes.addAll(nodes);
+        synchronized (baseNodes) {
+            baseNodes.addAll(nodes);
+            routes.set(Routes.compile(nodeVersion.get(), baseNodes));
+        }
         return nodes;
     }
 
+    /**
+     * @param nodes nodes that were returned by {@link #register(Object)}
+     * @return whether any of the nodes was registered
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public final boolean unregister(Collection<? extends Node> nodes) {
+        synchronized (baseNodes) {
+            var changed = baseNodes.removeAll(nodes);
+            routes.set(Routes.compile(nodeVersion.get(), baseNodes));
+            return changed;
+        }
+    }
+
+    @Override
+    public Object addChildren(@Nullable Object @NotNull ... children) {
+        var result = super.addChildren(children);
+        childVersion.incrementAndGet();
+        return result;
+    }
+
+    @Override
+    public int removeChildren(@Nullable Object @NotNull ... children) {
+        var result = super.removeChildren(children);
+        childVersion.incrementAndGet();
+        return result;
+    }
+
+    @Override
+    public void clearChildren() {
+        super.clearChildren();
+        childVersion.incrementAndGet();
+    }
+
     @Override
     public final void initialize() {
         streamChildren(AbstractCommandAdapter.class).forEach(AbstractCommandAdapter::initialize);
@@ -111,26 +169,55 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
         return autoComplete(usage, argName, currentValue);
     }
 
+    public final CompletableFuture<Stream<AutoFillOption>> autoCompleteAsync(
+            CommandResponseHandler source,
+            @Doc("Do not include currentValue") String[] fullCommand,
+            String argName, @Nullable String currentValue, Duration budget, Object... extraArgs
+    ) {
+        var usage = createUsageBase(source, fullCommand, extraArgs);
+        return autoCompleteAsync(usage, argName, currentValue, budget);
+    }
+
+    /**
+     * Collects autocompletion options off the calling thread.
+     * When the budget runs out, the future completes with the options that were collected until then.
+     */
+    public final CompletableFuture<Stream<AutoFillOption>> autoCompleteAsync(
+            CommandUsage usage, String argName, @Nullable String currentValue, Duration budget) {
+        var options = new ConcurrentLinkedQueue<AutoFillOption>();
+        var done    = new CompletableFuture<Void>();
+        AutoCompleteExecutor.execute(() -> {
+            try {
+                autoComplete(usage, argName, currentValue).takeWhile($ -> !done.isDone()).forEach(options::add);
+                done.complete(null);
+            } catch (Throwable t) {
+                done.completeExceptionally(t);
+            }
+        });
+        return done.completeOnTimeout(null, budget.toNanos(), TimeUnit.NANOSECONDS)
+                .thenApply($ -> List.copyOf(options).stream());
+    }
+
     public final CommandUsage createUsageBase(CommandResponseHandler source, String[] fullCommand, Object... context) {
-        var baseNode = baseNodes.stream() // find base node to initiate advancing to execution node
-                .filter(node -> node.names().anyMatch(fullCommand[0]::equals))
-                .flatMap(cast(Callable.class))
-                .findAny()
-                .orElseThrow(() -> new CommandError("No such command: " + Arrays.toString(fullCommand)));
+        var baseRoute = routes().base().get(fullCommand[0]); // find base node to initiate advancing to execution node
+        if (baseRoute == null) throw new CommandError("No such command: " + Arrays.toString(fullCommand));
+        var baseNode = baseRoute.callable();
         var builder = CommandUsage.builder()
                 .registeredTarget(baseNode.getRegisteredTarget())
                 .source(source)
                 .manager(this)
                 .fullCommand(trimFullCommand(fullCommand))
                 .baseNode(baseNode);
-        // collect context
-        var contextProviders = concat(children(CommandContextProvider.class),
-                of(this, source).flatMap(cast(CommandContextProvider.class))).collect(Collectors.toUnmodifiableSet());
-        var expand = expand(it -> contextProviders.stream().flatMap(ccp -> ccp.expandContext(it)));
-        of(this, source).flatMap(expand).distinct().forEach(builder::context);
-        concat(streamChildren(Object.class), Arrays.stream(context)).flatMap(expand)
-                .distinct()
-                .forEach(builder::context);
+        // collect context; the builder deduplicates
+        var cache = contextCache();
+        if (source instanceof CommandContextProvider ccp && !cache.providers().contains(ccp))
+            cache = collectContext(-1, ccp); // source contributes to the expansion of everything else
+        // expanded on every usage, because the context of a child may change at any time
+        var expand = cache.expander();
+        expand.apply(this).forEach(builder::context);
+        expand.apply(source).forEach(builder::context);
+        streamChildren(Object.class).flatMap(expand).forEach(builder::context);
+        Arrays.stream(context).flatMap(expand).forEach(builder::context);
         return builder.build();
     }
 
@@ -193,7 +280,7 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
 
             validatePermitted(usage, call);
 
-            var adapters = call.adaptParameters();
+            var adapters = route(usage.getStackTrace().peek()).adapters();
             var useArgs  = new Object[adapters.length];
 
             for (var i = 0; i < adapters.length; i++) {
@@ -212,11 +299,7 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
                     }
                 } else {
                     // find contextual argument
-                    useArgs[i] = usage.getContext()
-                            .stream()
-                            .filter(type.getTargetClass()::isInstance)
-                            .findAny()
-                            .orElse(null);
+                    useArgs[i] = usage.findContext(type.getTargetClass()).orElse(null);
                 }
             }
 
@@ -242,6 +325,43 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
         return obj instanceof CommandManager && obj.hashCode() == hashCode();
     }
 
+    /**
+     * The compiled route of a callable; callables that were not registered with this manager are compiled on demand.
+     */
+    final Route route(Callable callable) {
+        var route = routes().byCallable().get(callable);
+        return route != null ? route : Routes.compile(callable, new IdentityHashMap<>());
+    }
+
+    private Routes routes() {
+        var routes = this.routes.get();
+        if (routes.version() == nodeVersion.get()) return routes;
+        // base nodes were modified through getBaseNodes()
+        synchronized (baseNodes) {
+            routes = Routes.compile(nodeVersion.get(), baseNodes);
+            this.routes.set(routes);
+            return routes;
+        }
+    }
+
+    private ContextCache contextCache() {
+        var version = childVersion.get();
+        var cache   = contextCache.get();
+        // children may also have been modified through getChildren()
+        if (cache != null && cache.version() == version && cache.childCount() == getChildren().size()) return cache;
+        cache = collectContext(version, null);
+        contextCache.set(cache);
+        return cache;
+    }
+
+    private ContextCache collectContext(int version, @Nullable CommandContextProvider extra) {
+        var childCount = getChildren().size();
+        var providers = concat(children(CommandContextProvider.class),
+                of(this, extra).flatMap(cast(CommandContextProvider.class))).distinct().toList();
+        Function<Object, Stream<Object>> expand = expand(it -> providers.stream().flatMap(ccp -> ccp.expandContext(it)));
+        return new ContextCache(version, childCount, providers, expand);
+    }
+
     protected Optional<AbstractCommandAdapter> adapter() {
         return streamChildren(AbstractCommandAdapter.class).findAny();
     }
@@ -266,15 +386,11 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
 
     private boolean isPermitted(CommandUsage usage, Callable callable) {
         var permission = callable.getAttribute().permission();
-        return Command.EmptyAttribute.equals(permission) || usage.getContext()
-                .stream()
-                .flatMap(cast(PermissionChecker.class))
-                .findAny()
-                .isEmpty() || usage.getContext()
-                       .stream()
-                       .flatMap(cast(PermissionChecker.class))
-                       .filter(chk -> chk.acceptPermission(permission))
-                       .anyMatch(chk -> chk.userHasPermission(usage, permission));
+        if (Command.EmptyAttribute.equals(permission)) return true;
+        var checkers = usage.contextOf(PermissionChecker.class);
+        return checkers.isEmpty() || checkers.stream()
+                .filter(chk -> chk.acceptPermission(permission))
+                .anyMatch(chk -> chk.userHasPermission(usage, permission));
     }
 
     private void validatePermitted(CommandUsage usage, Callable callable) {
@@ -313,7 +429,7 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
                 .attribute(attribute)
                 .target(target)
                 .method(source)
-                .callable(Invocable.ofMethodCall(target, source));
+                .callable(Invocable.ofMethodHandle(target, source));
 
         var params = new ArrayList<org.comroid.commands.node.Parameter>();
         registerParameters(params, source);
@@ -382,4 +498,119 @@ public class CommandManager extends Container.Base implements CommandInfoProvide
             index += 1;
         }
     }
+
+    /**
+     * A callable with its children indexed by name and alias, and the parameters and adapters of the call it
+     * executes, in parameter order.
+     */
+    record Route(
+            Callable callable, Map<String, Route> routes, Map<String, org.comroid.commands.node.Parameter> named,
+            org.comroid.commands.node.Parameter[] parameters, Call.ParameterAdapter @Nullable [] adapters
+    ) {
+        int indexOf(org.comroid.commands.node.Parameter parameter) {
+            for (var i = 0; i < parameters.length; i++)
+                if (parameters[i] == parameter) return i;
+            return -1;
+        }
+    }
+
+    /**
+     * Bumps the node version on every modification, so that the compiled routes notice changes made through
+     * {@link #getBaseNodes()}.
+     */
+    private final class BaseNodes extends AbstractSet<Node> {
+        private final Set<Node> nodes = new HashSet<>();
+
+        @Override
+        public boolean add(Node node) {
+            if (!nodes.add(node)) return false;
+            nodeVersion.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object node) {
+            if (!nodes.remove(node)) return false;
+            nodeVersion.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public @NotNull Iterator<Node> iterator() {
+            var iterator = nodes.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Node next() {
+                    return iterator.next();
+                }
+
+                @Override
+                public void remove() {
+                    iterator.remove();
+                    nodeVersion.incrementAndGet();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return nodes.size();
+        }
+    }
+
+    /**
+     * Context providers of this manager and the expander built from them.
+     * Valid until the children change.
+     */
+    private record ContextCache(
+            int version, int childCount, List<CommandContextProvider> providers, Function<Object, Stream<Object>> expander
+    ) {}
+
+    /**
+     * The command tree compiled into a name/alias trie of {@link Route}s.
+     */
+    private record Routes(int version, Map<String, Route> base, Map<Callable, Route> byCallable) {
+        static Routes compile(int version, Collection<Node> baseNodes) {
+            var base       = new HashMap<String, Route>();
+            var byCallable = new IdentityHashMap<Callable, Route>();
+            for (var node : baseNodes) {
+                if (!(node instanceof Callable callable)) continue;
+                var route = compile(callable, byCallable);
+                callable.names().forEach(name -> base.putIfAbsent(name, route));
+            }
+            return new Routes(version, unmodifiableMap(base), unmodifiableMap(byCallable));
+        }
+
+        static Route compile(Callable callable, Map<Callable, Route> compiled) {
+            var known = compiled.get(callable);
+            if (known != null) return known;
+
+            var routes     = new HashMap<String, Route>();
+            var named      = new HashMap<String, org.comroid.commands.node.Parameter>();
+            var call       = callable.asCall();
+            var parameters = call == null
+                             ? new org.comroid.commands.node.Parameter[0]
+                             : call.nodes().toArray(org.comroid.commands.node.Parameter[]::new);
+            var route = new Route(callable,
+                    unmodifiableMap(routes),
+                    unmodifiableMap(named),
+                    parameters,
+                    call == null ? null : call.adaptParameters());
+            compiled.put(callable, route);
+
+            callable.nodes().forEach(node -> {
+                if (node instanceof Callable child) {
+                    var childRoute = compile(child, compiled);
+                    child.names().forEach(name -> routes.putIfAbsent(name, childRoute));
+                } else if (node instanceof org.comroid.commands.node.Parameter param)
+                    named.putIfAbsent(param.getName(), param);
+            });
+            return route;
+        }
+    }
 }
@@ -1,11 +1,15 @@
 package org.comroid.commands.impl;
 
+import lombok.AccessLevel;
 import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Singular;
+import lombok.ToString;
 import lombok.Value;
 import org.comroid.annotations.Default;
-import org.comroid.api.func.util.Optionals;
-import org.comroid.api.func.util.Streams;
+import org.comroid.api.Polyfill;
+import org.comroid.api.java.ReflectionHelper;
 import org.comroid.api.text.StringMode;
 import org.comroid.commands.model.CommandResponseHandler;
 import org.comroid.commands.node.Callable;
@@ -13,11 +17,16 @@ import org.comroid.commands.node.Node;
 import org.comroid.commands.node.Parameter;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.Stack;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 @Value
@@ -32,6 +41,8 @@ public class CommandUsage {
     @Default                       Stack<Parameter>       paramTrace      = new Stack<>();
     @Default @Singular("argument") Map<Parameter, String> argumentStrings = new ConcurrentHashMap<>();
     @Default @Singular("context")  Set<Object>            context;
+    @Getter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    AtomicReference<Map<Class<?>, List<Object>>> contextIndex = new AtomicReference<>();
 
     public void advanceFull() {
         stackTrace.clear();
@@ -40,27 +51,38 @@ public class CommandUsage {
         stackTrace.push(baseNode);
 
         var helper = new Object() {
-            Node     node             = baseNode;
-            Callable lastCallable     = null;
-            int      fullCommandIndex = 1;
+            Node                 node             = baseNode;
+            CommandManager.Route route            = manager.route(baseNode);
+            CommandManager.Route lastCallable     = route;
+            int                  fullCommandIndex = 1;
 
             boolean findNext() {
                 if (fullCommandIndex >= fullCommand.length) return false;
                 var part = fullCommand[fullCommandIndex];
 
-                callable:
-                if (node instanceof Callable callable) {
-                    var result = callable.nodes().filter(node -> Objects.equals(part, node.getName())).findAny();
-                    if (result.isEmpty()) break callable;
-                    this.node         = result.get();
-                    this.lastCallable = result.flatMap(Optionals.cast(Callable.class)).orElse(callable);
-                    this.fullCommandIndex += 1;
-                    return true;
+                if (node instanceof Callable) {
+                    var next = route.routes().get(part);
+                    if (next != null) {
+                        this.node         = next.callable();
+                        this.route        = next;
+                        this.lastCallable = next;
+                        this.fullCommandIndex += 1;
+                        return true;
+                    }
+                    var named = route.named().get(part);
+                    if (named != null) {
+                        this.node         = named;
+                        this.lastCallable = route;
+                        this.fullCommandIndex += 1;
+                        return true;
+                    }
                 }
 
-                if (lastCallable == null) return false;
-                var params = lastCallable.nodes().flatMap(Streams.cast(Parameter.class)).toList();
-                if (!(node instanceof Parameter)) node = params.getFirst();
+                var params = lastCallable.parameters();
+                if (!(node instanceof Parameter)) {
+                    if (params.length == 0) return false;
+                    node = params[0];
+                }
 
                 if (node instanceof Parameter param) {
                     // store argString
@@ -76,12 +98,11 @@ public class CommandUsage {
                     if (!argString.toString().isBlank()) argumentStrings.put(param, argString.toString());
 
                     // advance parameter if possible
-                    var nextIndex = params.indexOf(param) + 1;
-                    if (nextIndex >= params.size() || params.get(nextIndex)
-                                                              .getAttribute()
-                                                              .stringMode() == StringMode.SINGLE_WORD) return false;
+                    var nextIndex = lastCallable.indexOf(param) + 1;
+                    if (nextIndex >= params.length
+                        || params[nextIndex].getAttribute().stringMode() == StringMode.SINGLE_WORD) return false;
 
-                    this.node = params.get(nextIndex);
+                    this.node = params[nextIndex];
                     this.fullCommandIndex += 1;
                     return true;
                 }
@@ -99,6 +120,32 @@ public class CommandUsage {
     }
 
     public <T> Stream<T> fromContext(Class<T> type) {
-        return context.stream().flatMap(Streams.cast(type));
+        return contextOf(type).stream();
+    }
+
+    /**
+     * All context objects that are instances of {@code type}, in context order.
+     */
+    public <T> List<T> contextOf(Class<T> type) {
+        return Polyfill.uncheckedCast(contextIndex().getOrDefault(type, List.of()));
+    }
+
+    public <T> Optional<T> findContext(Class<T> type) {
+        var ls = contextOf(type);
+        return ls.isEmpty() ? Optional.empty() : Optional.of(ls.getFirst());
+    }
+
+    private Map<Class<?>, List<Object>> contextIndex() {
+        var index = contextIndex.get();
+        if (index != null) return index;
+
+        // context is immutable, so every type it satisfies can be indexed once
+        var build = new HashMap<Class<?>, List<Object>>();
+        for (var it : context)
+            if (it != null) for (var type : ReflectionHelper.hierarchy(it.getClass()))
+                build.computeIfAbsent(type, $ -> new ArrayList<>()).add(it);
+        build.replaceAll(($, ls) -> List.copyOf(ls));
+        contextIndex.compareAndSet(null, build);
+        return contextIndex.get();
     }
 }
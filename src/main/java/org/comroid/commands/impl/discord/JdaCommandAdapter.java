@@ -67,6 +67,7 @@ import org.comroid.commands.node.Node;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -92,6 +93,11 @@ import static org.comroid.api.func.util.Streams.*;
 @Value
 @RequiredArgsConstructor
 public class JdaCommandAdapter extends AbstractCommandAdapter implements PermissionChecker {
+    /**
+     * Discord drops autocompletion replies after three seconds; whatever was collected until then is sent.
+     */
+    public static final Duration AutoCompleteBudget = Duration.ofMillis(2500);
+
     CommandManager          manager;
     Map<String, Command>    namedCommands = new ConcurrentHashMap<>();
     Set<CommandCapability>  capabilities  = Set.of(CommandCapability.NAMED_ARGS);
@@ -141,20 +147,22 @@ public class JdaCommandAdapter extends AbstractCommandAdapter implements Permiss
                         event.getChannel()));
         bus.flatMap(CommandAutoCompleteInteractionEvent.class).listen().subscribeData(event -> {
             var option = event.getFocusedOption();
-            var options = manager.autoComplete(JdaCommandAdapter.this,
+            manager.autoCompleteAsync(JdaCommandAdapter.this,
                             event.getCommandString().substring(1).split(" "),
                             option.getName(),
                             option.getValue(),
+                            AutoCompleteBudget,
                             event.getName(),
                             event,
                             event.getUser(),
                             event.getMember(),
                             event.getGuild(),
                             event.getChannel())
-                    .map(e -> new net.dv8tion.jda.api.interactions.commands.Command.Choice(e.key(), e.description()))
-                    .limit(25)
-                    .toList();
-            event.replyChoices(options).queue();
+                    .thenApply(options -> options.map(e -> new net.dv8tion.jda.api.interactions.commands.Command.Choice(
+                            e.key(),
+                            e.description())).limit(25).toList())
+                    .thenAccept(choices -> event.replyChoices(choices).queue())
+                    .exceptionally(Debug.exceptionLogger("Could not reply to autocompletion"));
         });
 
         var helper = new Object() {
@@ -315,9 +323,7 @@ public class JdaCommandAdapter extends AbstractCommandAdapter implements Permiss
     public boolean userHasPermission(CommandUsage usage, Object key) {
         if (key == null || String.valueOf(key).isBlank()) return true;
         var permissions = Permission.getPermissions(Long.parseLong(key.toString()));
-        return usage.getContext()
-                .stream()
-                .flatMap(cast(Member.class))
+        return usage.fromContext(Member.class)
                 .anyMatch(usr -> usr.getIdLong() == 141476933849448448L /* kaleidox is superadmin for testing purposes */ || usr.hasPermission(
                         permissions));
     }
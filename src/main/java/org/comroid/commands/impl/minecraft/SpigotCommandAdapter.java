@@ -10,6 +10,7 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.comroid.commands.autofill.AutoFillOption;
+import org.comroid.commands.autofill.IAutoFillProvider;
 import org.comroid.commands.impl.AbstractCommandAdapter;
 import org.comroid.commands.impl.CommandManager;
 import org.comroid.commands.impl.CommandUsage;
@@ -17,6 +18,7 @@ import org.comroid.commands.model.CommandCapability;
 import org.comroid.commands.model.CommandContextProvider;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -33,6 +35,12 @@ import static org.comroid.api.func.util.Streams.*;
 @RequiredArgsConstructor
 public class SpigotCommandAdapter extends AbstractCommandAdapter
         implements MinecraftResponseHandler, TabCompleter, CommandExecutor, CommandContextProvider {
+    /**
+     * Tab completion runs on the server thread, where providers may use the Bukkit API, and stops taking options once
+     * this budget is spent. Expensive providers should opt into {@link IAutoFillProvider#cached(Duration)}.
+     */
+    public static final Duration TabCompleteBudget = Duration.ofMillis(10);
+
     CommandManager manager;
     Set<CommandCapability> capabilities = Set.of();
     JavaPlugin             plugin;
@@ -58,7 +66,9 @@ public class SpigotCommandAdapter extends AbstractCommandAdapter
         if (alias.contains(":")) alias = alias.substring(alias.indexOf(':') + 1);
         var strings = strings(alias, args);
         var usage = manager.createUsageBase(this, strings, sender);
+        var deadline = System.nanoTime() + TabCompleteBudget.toNanos();
         return manager.autoComplete(usage, String.valueOf(args.length - 1), strings[strings.length - 1])
+                .takeWhile($ -> System.nanoTime() < deadline)
                 .map(AutoFillOption::key)
                 .toList();
     }
@@ -24,7 +24,7 @@ public interface PermissionChecker {
             @Override
             public boolean userHasPermission(CommandUsage usage, Object key) {
                 if (key.toString().matches("\\d")) key = Integer.parseInt(key.toString());
-                var userId = usage.getContext().stream().flatMap(cast(UUID.class)).findAny().orElseThrow();
+                var userId = usage.findContext(UUID.class).orElseThrow();
                 return key instanceof Integer level
                        ? adapter.checkOpLevel(userId, level)
                        : adapter.checkPermission(userId, key.toString(), false).toBooleanOrElse(false);
@@ -24,9 +24,11 @@ import java.io.FileOutputStream;
 import java.io.StringWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class TestUtil {
     public static final Random rng = new Random();
@@ -91,6 +93,19 @@ public class TestUtil {
             }
         }
 
+        public CompletableFuture<String[]> callAutoCompleteAsync(
+                IAutoFillProvider provider, String currentValue,
+                Duration budget
+        ) {
+            var command = dummyCommandNode(provider);
+            var mgr     = new CommandManager();
+            mgr.getBaseNodes().add(command);
+            var usage = dummyCommandUsage(mgr, currentValue, command);
+            return mgr.autoCompleteAsync(usage, "parameter", currentValue, budget)
+                    .thenApply(options -> options.map(AutoFillOption::key).toArray(String[]::new))
+                    .whenComplete(($, t) -> mgr.close());
+        }
+
         private CommandUsage dummyCommandUsage(
                 CommandManager mgr, String currentValue,
                 Callable dummyCommandNode
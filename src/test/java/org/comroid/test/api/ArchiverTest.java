@@ -0,0 +1,132 @@
+package org.comroid.test.api;
+
+import org.comroid.api.comp.Archiver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+public class ArchiverTest {
+    @TempDir
+    Path temp;
+
+    @Test
+    public void testJavaArchiver() throws IOException {
+        var root     = Files.createDirectories(temp.resolve("data"));
+        var longName = "n".repeat(150) + ".txt";
+        write(root.resolve("a.txt"), "hello");
+        write(root.resolve("debug.log"), "excluded");
+        write(root.resolve("sub/b.bin"), "x".repeat(10_000));
+        write(root.resolve("sub/deeper/" + longName), "long");
+        write(root.resolve("cache/c.txt"), "excluded");
+
+        var progress = new ArrayList<Archiver.Progress>();
+        var output = Archiver.Java.execute(temp.resolve("backup"), root, List.of("*.log", "cache/"), progress::add).join();
+        Assertions.assertEquals(temp.resolve("backup.tar.gz").toFile(), output);
+
+        var entries = read(output.toPath());
+        Assertions.assertEquals(List.of("data/", "data/a.txt", "data/sub/", "data/sub/b.bin", "data/sub/deeper/", "data/sub/deeper/" + longName),
+                List.copyOf(entries.keySet()));
+        Assertions.assertEquals("hello", entries.get("data/a.txt"));
+        Assertions.assertEquals("x".repeat(10_000), entries.get("data/sub/b.bin"));
+        Assertions.assertEquals("long", entries.get("data/sub/deeper/" + longName));
+
+        Assertions.assertEquals(entries.size(), progress.size());
+        var last = progress.getLast();
+        Assertions.assertEquals(last.totalBytes(), last.bytes());
+        Assertions.assertEquals(1.0, last.ratio());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkJavaArchiver() throws IOException {
+        final var files  = 256;
+        var       root   = Files.createDirectories(temp.resolve("bench"));
+        var       random = new Random(42);
+        var       data   = new byte[256 << 10];
+        for (var i = 0; i < files; i++) {
+            random.nextBytes(data);
+            // half compressible
+            Arrays.fill(data, 0, data.length / 2, (byte) 'a');
+            var file = root.resolve("dir" + i % 16).resolve("file" + i);
+            Files.createDirectories(file.getParent());
+            Files.write(file, data);
+        }
+
+        var start  = System.nanoTime();
+        var output = Archiver.Java.execute(temp.resolve("bench"), root, List.of(), null).join();
+        var nanos  = System.nanoTime() - start;
+
+        Assertions.assertEquals(files, read(output.toPath()).keySet().stream().filter(name -> !name.endsWith("/")).count());
+        System.out.printf("java archiver: %,8.1f MB/s (%,d -> %,d bytes)%n",
+                (long) files * data.length / 1e6 / (nanos / 1e9), (long) files * data.length, output.length());
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    // minimal ustar reader, enough for what the archiver writes
+    private static Map<String, String> read(Path archive) throws IOException {
+        var entries = new LinkedHashMap<String, String>();
+        try (var in = new DataInputStream(new GZIPInputStream(new FileInputStream(archive.toFile())))) {
+            var    header   = new byte[512];
+            String paxPath  = null;
+            while (true) {
+                try {
+                    in.readFully(header);
+                } catch (EOFException e) {
+                    break;
+                }
+                if (header[0] == 0) break;
+
+                var sum = 0;
+                for (var i = 0; i < 512; i++)
+                    sum += i >= 148 && i < 156 ? ' ' : header[i] & 0xFF;
+                Assertions.assertEquals(sum, Integer.parseInt(field(header, 148, 6), 8), "checksum");
+                Assertions.assertEquals("ustar", field(header, 257, 6));
+
+                var name = field(header, 0, 100);
+                var size = Long.parseLong(field(header, 124, 11), 8);
+                var body = new byte[(int) size];
+                in.readFully(body);
+                in.skipNBytes(-size & 511);
+
+                if (header[156] == 'x') {
+                    for (var record : new String(body, StandardCharsets.UTF_8).split("\n")) {
+                        var keyValue = record.substring(record.indexOf(' ') + 1);
+                        Assertions.assertEquals(record.length() + 1, Integer.parseInt(record.substring(0, record.indexOf(' '))));
+                        if (keyValue.startsWith("path=")) paxPath = keyValue.substring(5);
+                    }
+                    continue;
+                }
+                entries.put(paxPath != null ? paxPath : name, new String(body, StandardCharsets.UTF_8));
+                paxPath = null;
+            }
+        }
+        return entries;
+    }
+
+    private static String field(byte[] header, int offset, int length) {
+        var end = offset;
+        while (end < offset + length && header[end] != 0)
+            end++;
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,201 @@
+package org.comroid.test.api;
+
+import org.comroid.api.func.util.BlockPipeline;
+import org.comroid.api.func.util.DelegateStream;
+import org.comroid.api.net.EncryptionUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class BlockPipelineTest {
+    private static final int BlockSize = 64 << 10;
+
+    @Test
+    public void testEncryptedRoundTrip() throws Exception {
+        var pipeline = pipeline(key(), true);
+        for (var size : new int[]{ 0, 1, BlockSize - 1, BlockSize, 10 * BlockSize + 123 }) {
+            var data = generate(size);
+            Assertions.assertArrayEquals(data, decode(pipeline, encode(pipeline, data)), "size " + size);
+        }
+
+        var uncompressed = pipeline(key(), false);
+        var data         = generate(3 * BlockSize);
+        Assertions.assertArrayEquals(data, decode(uncompressed, encode(uncompressed, data)));
+    }
+
+    @Test
+    public void testGzipCompatible() throws Exception {
+        var pipeline = pipeline(null, true);
+        var data     = generate(10 * BlockSize + 123);
+
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(encode(pipeline, data)))) {
+            Assertions.assertArrayEquals(data, in.readAllBytes(), "output must be readable by any gzip decoder");
+        }
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(encode(pipeline, new byte[0])))) {
+            Assertions.assertEquals(0, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    public void testPassThrough() throws Exception {
+        var pipeline = pipeline(null, false);
+        var data     = generate(3 * BlockSize + 1);
+
+        var encoded = encode(pipeline, data);
+        Assertions.assertArrayEquals(data, encoded, "without a key or compression, data must be written as is");
+        Assertions.assertArrayEquals(data, decode(pipeline, encoded));
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        var pipeline = pipeline(key(), true);
+        var out      = new ByteArrayOutputStream();
+
+        var encoder = pipeline.encoder(out);
+        encoder.write("hello ".getBytes(StandardCharsets.UTF_8));
+        encoder.flush();
+        var flushed = out.size();
+        Assertions.assertTrue(flushed > 0, "flush must write the pending block");
+        encoder.write("world".getBytes(StandardCharsets.UTF_8));
+        encoder.close();
+
+        Assertions.assertEquals("hello world", new String(decode(pipeline, out.toByteArray()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testTampering() throws Exception {
+        var pipeline = pipeline(key(), true);
+        var encoded  = encode(pipeline, generate(4 * BlockSize));
+
+        var truncated = Arrays.copyOf(encoded, encoded.length / 2);
+        Assertions.assertThrows(IOException.class, () -> decode(pipeline, truncated), "truncation must be detected");
+
+        var modified = encoded.clone();
+        modified[modified.length / 2] ^= 1;
+        Assertions.assertThrows(IOException.class, () -> decode(pipeline, modified), "modification must be detected");
+
+        Assertions.assertThrows(IOException.class, () -> decode(pipeline(key(), true), encoded), "wrong key must be detected");
+    }
+
+    @Test
+    public void testDelegateStream() throws Exception {
+        var pipeline = pipeline(key(), true);
+        var data     = generate(5 * BlockSize);
+        var out      = new ByteArrayOutputStream();
+
+        try (var output = new DelegateStream.Output(out).setAutoFlush(false).encode(pipeline).setAutoFlush(false)) {
+            output.write(data);
+        }
+        try (var input = new DelegateStream.Input(new ByteArrayInputStream(out.toByteArray())).decode(pipeline)) {
+            Assertions.assertArrayEquals(data, input.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testCipherPool() {
+        var id = UUID.randomUUID();
+        var a = EncryptionUtil.prepareCipher(id, EncryptionUtil.Algorithm.AES, EncryptionUtil.Transformation.AES_ECB_PKCS5Padding,
+                Cipher.ENCRYPT_MODE, "0123456789abcdef");
+        var b = EncryptionUtil.prepareCipher(id, EncryptionUtil.Algorithm.AES, EncryptionUtil.Transformation.AES_ECB_PKCS5Padding,
+                Cipher.ENCRYPT_MODE, "0123456789abcdef");
+        Assertions.assertNotSame(a, b, "ciphers are not thread-safe and must not be shared");
+
+        var pool = EncryptionUtil.pool(BlockPipeline.Transformation);
+        var cipher = pool.acquire();
+        pool.release(cipher);
+        Assertions.assertSame(cipher, pool.acquire(), "released ciphers must be reused");
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmark() throws Exception {
+        final var size = 128 << 20;
+        var       key  = key();
+        var       data = generate(8 << 20);
+
+        var start = System.nanoTime();
+        var count = new CountingOutputStream();
+        var cipher = Cipher.getInstance(BlockPipeline.Transformation);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(128, new byte[12]));
+        try (var out = new GZIPOutputStream(new CipherOutputStream(count, cipher), 64 << 10)) {
+            for (var i = 0; i < size / data.length; i++)
+                out.write(data);
+        }
+        report("single stream", size, count.count, System.nanoTime() - start);
+
+        var pipeline = BlockPipeline.builder().key(key).build();
+        start = System.nanoTime();
+        count = new CountingOutputStream();
+        try (var out = pipeline.encoder(count)) {
+            for (var i = 0; i < size / data.length; i++)
+                out.write(data);
+        }
+        report("pipeline x%d".formatted(pipeline.getParallelism()), size, count.count, System.nanoTime() - start);
+    }
+
+    private static void report(String name, long size, long written, long nanos) {
+        System.out.printf("%s: %,8.1f MB/s (%,d -> %,d bytes)%n", name, size / 1e6 / (nanos / 1e9), size, written);
+    }
+
+    private static BlockPipeline pipeline(SecretKey key, boolean compress) {
+        return BlockPipeline.builder().blockSize(BlockSize).key(key).compress(compress).parallelism(4).build();
+    }
+
+    private static SecretKey key() throws Exception {
+        return KeyGenerator.getInstance("AES").generateKey();
+    }
+
+    private static byte[] encode(BlockPipeline pipeline, byte[] data) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var encoder = pipeline.encoder(out)) {
+            encoder.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] decode(BlockPipeline pipeline, byte[] data) throws IOException {
+        try (var decoder = pipeline.decoder(new ByteArrayInputStream(data))) {
+            return decoder.readAllBytes();
+        }
+    }
+
+    // half random, half text
+    private static byte[] generate(int size) {
+        var data = new byte[size];
+        new Random(size).nextBytes(data);
+        var text = "the quick brown fox jumps over the lazy dog\n".getBytes(StandardCharsets.US_ASCII);
+        for (var i = 0; i < size / 2; i++)
+            data[i] = text[i % text.length];
+        return data;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
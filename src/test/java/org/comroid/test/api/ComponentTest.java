@@ -1,10 +1,24 @@
 package org.comroid.test.api;
 
 import org.comroid.api.tree.Component;
+import org.comroid.api.tree.Initializable;
+import org.comroid.api.tree.LifeCycleScheduler;
+import org.comroid.api.tree.TickScheduler;
 import org.comroid.test.Dummy;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class ComponentTest {
     @Test
     public void testInject() {
@@ -22,6 +36,170 @@ public class ComponentTest {
         //assertNotNull("Banana was not injected", basket.yellow_bean);
     }
 
+    @Test
+    public void testScheduler() {
+        var events  = Collections.synchronizedList(new ArrayList<String>());
+        var overlap = new CountDownLatch(2);
+        var root    = new Node("root", events, null);
+        root.addChildren(new Node("a", events, overlap), new Node("b", events, overlap), new Dependent(root, events));
+
+        var report = LifeCycleScheduler.Default.initialize(root);
+
+        Assertions.assertTrue(report.isSuccessful(), String.valueOf(report.getFailures()));
+        Assertions.assertEquals(4, report.getTimings().size());
+        Assertions.assertEquals("init root", events.getFirst());
+        Assertions.assertTrue(events.indexOf("init a") < events.indexOf("init dependent"), "dependency must initialize first");
+        Assertions.assertTrue(root.isActive());
+
+        events.clear();
+        LifeCycleScheduler.Default.terminate(root);
+        Assertions.assertEquals("terminate root", events.getLast());
+        Assertions.assertTrue(events.indexOf("terminate dependent") < events.indexOf("terminate a"), "dependents must terminate first");
+    }
+
+    @Test
+    public void testSchedulerCycle() {
+        var root = new Component.Base();
+        root.addChildren(new CycleA(root), new CycleB(root));
+
+        Assertions.assertThrows(Initializable.InitFailed.class, () -> LifeCycleScheduler.Default.initialize(root));
+        Assertions.assertTrue(root.testState(Component.State.PreInit), "nothing must be initialized on cycles");
+    }
+
+    @Test
+    public void testTickScheduler() {
+        var root        = new Counter(null, false);
+        var slow        = new Counter(Duration.ofMillis(100), false);
+        var independent = new Counter(null, true);
+        root.addChildren(slow, independent);
+        LifeCycleScheduler.Default.initialize(root);
+
+        var ticks = TickScheduler.builder().root(root).tickRate(Duration.ofMillis(50)).build();
+        for (var i = 0; i < 10; i++)
+            ticks.tick();
+        Assertions.assertEquals(10, root.ticks.get());
+        Assertions.assertEquals(5, slow.ticks.get(), "component must tick at its own rate");
+        Assertions.assertEquals(10, independent.ticks.get());
+        Assertions.assertEquals(10, ticks.getLatency().getCount());
+        Assertions.assertEquals(5, Objects.requireNonNull(ticks.getLatency(slow)).getCount());
+
+        var late = new Counter(null, false);
+        root.addChildren(late);
+        ticks.tick();
+        Assertions.assertEquals(0, late.ticks.get(), "inactive components must not tick");
+        LifeCycleScheduler.Default.initialize(late);
+        ticks.tick();
+        Assertions.assertEquals(1, late.ticks.get(), "tick array must be refreshed on state changes");
+        ticks.close();
+    }
+
+    @Test
+    public void testExecuteFailure() {
+        var scheduler = new ScheduledThreadPoolExecutor(1);
+        var root = new Component.Base("broken") {
+            @Override
+            protected void $initialize() {
+                throw new IllegalStateException("broken");
+            }
+        };
+
+        var failure = Assertions.assertThrows(Initializable.InitFailed.class, () -> root.execute(scheduler, Duration.ofMillis(50)));
+        Assertions.assertInstanceOf(IllegalStateException.class, failure.getCause());
+        Assertions.assertTrue(scheduler.getQueue().isEmpty(), "a failed tree must not tick");
+        scheduler.shutdown();
+    }
+
+    public static class Counter extends Component.Base {
+        private final AtomicInteger ticks = new AtomicInteger();
+        private final Duration      tickRate;
+        private final boolean       independent;
+
+        public Counter(Duration tickRate, boolean independent) {
+            this.tickRate    = tickRate;
+            this.independent = independent;
+        }
+
+        @Override
+        public Duration getTickRate() {
+            return tickRate;
+        }
+
+        @Override
+        public boolean isTickIndependent() {
+            return independent;
+        }
+
+        @Override
+        protected void $tick() {
+            ticks.incrementAndGet();
+        }
+    }
+
+    public static class Node extends Component.Base {
+        private final           List<String>   events;
+        private final @Nullable CountDownLatch overlap;
+
+        /**
+         * @param overlap counted down on initialization, which then waits for the other components sharing the latch
+         */
+        public Node(String name, List<String> events, @Nullable CountDownLatch overlap) {
+            super(name);
+            this.events  = events;
+            this.overlap = overlap;
+        }
+
+        @Override
+        protected void $initialize() {
+            if (overlap != null) try {
+                overlap.countDown();
+                Assertions.assertTrue(overlap.await(5, TimeUnit.SECONDS), "independent components must initialize in parallel");
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            events.add("init " + getName());
+        }
+
+        @Override
+        protected void $terminate() {
+            events.add("terminate " + getName());
+        }
+    }
+
+    @Component.Requires(Node.class)
+    public static class Dependent extends Component.Sub<Node> {
+        private final List<String> events;
+
+        public Dependent(Node parent, List<String> events) {
+            super(parent);
+            this.events = events;
+            setName("dependent");
+        }
+
+        @Override
+        protected void $initialize() {
+            events.add("init dependent");
+        }
+
+        @Override
+        protected void $terminate() {
+            events.add("terminate dependent");
+        }
+    }
+
+    @Component.Requires(CycleB.class)
+    public static class CycleA extends Component.Sub<Component> {
+        public CycleA(Component parent) {
+            super(parent);
+        }
+    }
+
+    @Component.Requires(CycleA.class)
+    public static class CycleB extends Component.Sub<Component> {
+        public CycleB(Component parent) {
+            super(parent);
+        }
+    }
+
     public static class Basket extends Component.Base {
         private @Inject Dummy.Fruit fruit;
         private @Inject Dummy.Apple apple;
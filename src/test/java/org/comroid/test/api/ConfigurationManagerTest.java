@@ -0,0 +1,75 @@
+package org.comroid.test.api;
+
+import lombok.Data;
+import org.comroid.api.config.ConfigurationManager;
+import org.comroid.api.data.seri.DataNode;
+import org.comroid.api.func.ext.Context;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ConfigurationManagerTest {
+    @TempDir
+    Path temp;
+
+    private Path                              file;
+    private ConfigurationManager<Settings>    manager;
+    private List<ConfigurationManager.Change> changes;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        file = temp.resolve("settings.json");
+        Files.writeString(file, "{\"name\":\"test\",\"port\":1}");
+
+        manager = new ConfigurationManager<>(Context.root(), Settings.class, file.toString());
+        changes = new CopyOnWriteArrayList<>();
+        manager.getChanges().setExecutor(Runnable::run);
+        manager.getChanges().listen().subscribeData(changes::add);
+        manager.initialize();
+        changes.clear();
+    }
+
+    @Test
+    public void testForcedReload() {
+        manager.getConfig().setPort(2);
+        manager.reload();
+        Assertions.assertEquals(2, manager.getConfig().getPort(), "an unmodified file must not be reloaded");
+
+        manager.reload(true);
+        Assertions.assertEquals(1, manager.getConfig().getPort(), "a forced reload must reset values changed in memory");
+        Assertions.assertEquals(List.of(new ConfigurationManager.Change("port", 2, 1)), changes);
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        try (var ignored = manager.watch(Duration.ofMillis(200))) {
+            // written twice in quick succession, which must only cause one reload
+            Files.writeString(file, "{\"name\":\"test\",\"port\":3}");
+            Files.writeString(file, "{\"name\":\"test\",\"port\":2}");
+
+            var deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (changes.isEmpty() && System.nanoTime() < deadline)
+                Thread.sleep(50);
+            Thread.sleep(500);
+        }
+
+        Assertions.assertEquals(List.of(new ConfigurationManager.Change("port", 1, 2)), changes,
+                "expected exactly one change for the modified key");
+        Assertions.assertEquals(2, manager.getConfig().getPort());
+        Assertions.assertEquals("test", manager.getConfig().getName());
+    }
+
+    @Data
+    public static class Settings implements DataNode {
+        private String name = "default";
+        private int    port = 8080;
+    }
+}
@@ -0,0 +1,83 @@
+package org.comroid.test.api;
+
+import org.comroid.api.tree.Container;
+import org.comroid.api.tree.Tickable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ContainerTest {
+    @Test
+    public void testTypedLookup() {
+        Tickable tickable  = () -> {};
+        var      container = new Container.Base("a", 1, tickable, 2L);
+
+        Assertions.assertEquals(List.of("a"), container.streamChildren(String.class).toList());
+        Assertions.assertEquals(List.of(1, 2L), container.streamChildren(Number.class).toList());
+        Assertions.assertEquals(List.of("a", 1, 2L), container.streamChildren(Comparable.class).toList());
+        Assertions.assertSame(tickable, container.child(Tickable.class).get());
+        Assertions.assertEquals(4, container.streamChildren(Object.class).count());
+
+        Assertions.assertEquals(1, container.removeChildren(1, 3));
+        Assertions.assertEquals(List.of(2L), container.streamChildren(Number.class).toList());
+        Assertions.assertFalse(container.getChildren().contains(1));
+
+        container.addChildren("a", null, "b");
+        Assertions.assertEquals(List.of("a", "b"), container.streamChildren(CharSequence.class).toList(), "duplicates and nulls must be ignored");
+
+        container.getChildren().removeIf(String.class::isInstance);
+        Assertions.assertEquals(0, container.streamChildren(String.class).count(), "index must follow changes through getChildren()");
+
+        container.clearChildren();
+        Assertions.assertTrue(container.getChildren().isEmpty());
+        Assertions.assertEquals(0, container.streamChildren(Number.class).count());
+    }
+
+    @Test
+    public void testConcurrentModification() throws Exception {
+        var container = new Container.Base();
+        var running   = new AtomicBoolean(true);
+        var errors    = new ArrayList<Throwable>();
+
+        var reader = new Thread(() -> {
+            try {
+                while (running.get())
+                    for (var child : container.getChildren())
+                        Assertions.assertNotNull(child);
+            } catch (Throwable t) {
+                errors.add(t);
+            }
+        });
+        reader.start();
+        for (var i = 0; i < 10_000; i++) {
+            container.addChildren(i);
+            if (i % 3 == 0) container.removeChildren(i / 2);
+        }
+        running.set(false);
+        reader.join();
+
+        Assertions.assertEquals(List.of(), errors);
+        Assertions.assertEquals(container.getChildren().size(), container.streamChildren(Integer.class).count());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkTypedLookup() {
+        final var calls     = 1_000_000;
+        var       container = new Container.Base();
+        for (var i = 0; i < 200; i++)
+            container.addChildren(i, "child " + i);
+        Tickable tickable = () -> {};
+        container.addChildren(tickable);
+
+        var start = System.nanoTime();
+        for (var i = 0; i < calls; i++)
+            Assertions.assertSame(tickable, container.child(Tickable.class).get());
+        var nanos = System.nanoTime() - start;
+        System.out.printf("child(type): %,8.1f ns/call%n", (double) nanos / calls);
+    }
+}
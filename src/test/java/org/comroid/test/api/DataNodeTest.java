@@ -0,0 +1,55 @@
+package org.comroid.test.api;
+
+import org.comroid.api.data.seri.DataNode;
+import org.comroid.api.data.seri.MimeType;
+import org.comroid.api.data.seri.adp.FormData;
+import org.comroid.api.data.seri.adp.JSON;
+import org.comroid.api.java.StackTraceUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+public class DataNodeTest {
+    @Test
+    public void testMimeType() {
+        Assertions.assertEquals(MimeType.JSON, new DataNode.Object().getMimeType());
+        Assertions.assertEquals(MimeType.JSON, new DataNode.Array().getMimeType());
+        Assertions.assertEquals(MimeType.JSON, DataNode.of(42).getMimeType());
+        Assertions.assertEquals(MimeType.JSON, new JSON.Object().getMimeType());
+        Assertions.assertEquals(MimeType.URLENCODED, new FormData.Object().getMimeType());
+        Assertions.assertEquals(MimeType.URLENCODED, new DataNode.Object().form().getMimeType());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkMimeType() {
+        final var calls = 100_000;
+        var       node  = new DataNode.Object();
+
+        for (var entry : Map.<String, Function<DataNode, MimeType>>of(
+                "stack walk", DataNodeTest::stackWalk,
+                "type cache", DataNode::getMimeType).entrySet()) {
+            var start = System.nanoTime();
+            for (var i = 0; i < calls; i++)
+                Assertions.assertNotNull(entry.getValue().apply(node));
+            var nanos = System.nanoTime() - start;
+
+            System.out.printf("%s: %,10.1f ns/call%n", entry.getKey(), (double) nanos / calls);
+        }
+    }
+
+    // the previous default resolution of DataNode#getMimeType, kept for comparison
+    private static MimeType stackWalk(DataNode node) {
+        final var supported = Map.of("json", MimeType.JSON, "form", MimeType.URLENCODED);
+        return StackTraceUtils.stream()
+                .map(StackTraceElement::getMethodName)
+                .map(name -> supported.getOrDefault(name, null))
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(MimeType.JSON);
+    }
+}
@@ -1,13 +1,17 @@
 package org.comroid.test.api;
 
 import org.comroid.api.data.bind.DataStructure;
+import org.comroid.api.data.seri.DataNode;
 import org.comroid.api.data.seri.type.StandardValueType;
 import org.comroid.api.data.seri.type.ValueType;
 import org.comroid.api.func.util.Invocable;
 import org.comroid.test.Dummy;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+
 public class DataStructureTest {
     @Test
     public void testFruit() {
@@ -78,4 +82,49 @@ public class DataStructureTest {
         testProp(struct, StandardValueType.INTEGER, "color", 0x22dd88);
         testProp(struct, StandardValueType.INTEGER, "ripeness", 0x22dd88);
     }
+
+    @Test
+    public void testAccessors() {
+        var struct = DataStructure.of(Point.class);
+        Assertions.assertEquals(3, struct.getAccessors().size(), "invalid point accessor count");
+
+        var point = new Point(1, 2, "a");
+        var node  = DataNode.of(point).asObject();
+        Assertions.assertEquals(1, node.get("x").asInt());
+        Assertions.assertEquals(2, node.get("y").asInt());
+        Assertions.assertEquals("a", node.get("label").asString());
+
+        struct.<Integer>getProperty("x").assertion().setFor(point, 5);
+        Assertions.assertEquals(5, point.x, "x property: setter unusable");
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkConversion() {
+        final var count  = 100_000;
+        var       points = new ArrayList<Point>(count);
+        for (var i = 0; i < count; i++)
+            points.add(new Point(i, -i, "p" + i));
+
+        for (var run = 0; run < 3; run++) {
+            var start = System.nanoTime();
+            var node  = DataNode.of(points);
+            var nanos = System.nanoTime() - start;
+
+            Assertions.assertEquals(count, node.size());
+            System.out.printf("run %d: %,8.1f ns/object%n", run, (double) nanos / count);
+        }
+    }
+
+    public static class Point {
+        public int    x;
+        public int    y;
+        public String label;
+
+        public Point(int x, int y, String label) {
+            this.x     = x;
+            this.y     = y;
+            this.label = label;
+        }
+    }
 }
@@ -2,9 +2,15 @@ package org.comroid.test.api;
 
 import org.comroid.api.data.seri.type.StandardValueType;
 import org.comroid.api.func.util.Event;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 public class EventTest {
     private Event.Bus<String> busA;
     private Event.Bus<Object> busB;
@@ -27,4 +33,82 @@ public class EventTest {
         busB.accept(420);
         busB.accept("666");
     }
+
+    @Test
+    public void testPriorityOrder() {
+        var bus   = new Event.Bus<String>();
+        var order = new ArrayList<Integer>();
+        bus.setExecutor(Runnable::run);
+
+        bus.listen().subscribe(e -> order.add(0));
+        bus.listen().subscribe(e -> order.add(2)).setPriority(2);
+        var late = bus.listen().subscribe(e -> order.add(1));
+        late.setPriority(1);
+
+        bus.publish("a");
+        Assertions.assertEquals(List.of(2, 1, 0), order, "listeners were not called by priority");
+
+        order.clear();
+        late.close();
+        bus.publish("b");
+        Assertions.assertEquals(List.of(2, 0), order, "closed listener was still called");
+    }
+
+    @Test
+    public void testKeyRouting() {
+        var bus      = new Event.Bus<String>();
+        var received = new ArrayList<String>();
+        var target   = new KeyedTarget();
+        bus.setExecutor(Runnable::run);
+        bus.register(target);
+
+        bus.listen().setKey("a").subscribeData(data -> received.add("a:" + data));
+        bus.listen().setFlag(4L).subscribeData(data -> received.add("flag:" + data));
+        bus.listen().subscribeData(data -> received.add("any:" + data));
+
+        bus.publish("a", "1");
+        bus.publish("b", "2");
+        bus.publish("alpha", "3");
+        bus.publish("beta", 4L, "4");
+        bus.publish("beta", 2L, "5");
+
+        Assertions.assertEquals(List.of("a:1", "any:1", "any:2", "any:3", "flag:4", "any:4", "any:5"), received);
+        Assertions.assertEquals(List.of("alpha:3", "beta:4"), target.received);
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkDispatch() {
+        final var events = 100_000;
+
+        for (var listenerCount : new int[]{ 1, 10, 100, 1000 }) {
+            var bus     = new Event.Bus<Integer>();
+            var counter = new AtomicLong();
+            bus.setExecutor(Runnable::run);
+            for (var i = 0; i < listenerCount; i++)
+                bus.listen().subscribe(e -> counter.incrementAndGet());
+
+            var start = System.nanoTime();
+            for (var i = 0; i < events; i++)
+                bus.publish(i);
+            var nanos = System.nanoTime() - start;
+
+            Assertions.assertEquals((long) events * listenerCount, counter.get());
+            System.out.printf("%4d listeners: %,12.0f events/sec%n", listenerCount, events / (nanos / 1e9));
+        }
+    }
+
+    public static class KeyedTarget {
+        private final List<String> received = new ArrayList<>();
+
+        @Event.Subscriber
+        public void alpha(Event<String> event) {
+            received.add("alpha:" + event.getData());
+        }
+
+        @Event.Subscriber(flag = 4)
+        public void beta(Event<String> event) {
+            received.add("beta:" + event.getData());
+        }
+    }
 }
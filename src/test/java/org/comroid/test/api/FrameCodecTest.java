@@ -0,0 +1,159 @@
+package org.comroid.test.api;
+
+import org.comroid.api.func.util.DelegateStream;
+import org.comroid.api.func.util.FrameCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class FrameCodecTest {
+    private static final List<String> Messages = List.of("", "a", "hello world", "x".repeat(200), "y".repeat(70_000));
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (var prefix : FrameCodec.Prefix.values()) {
+            var codec   = FrameCodec.builder().prefix(prefix).build();
+            var encoded = encode(codec);
+
+            // in one piece: no frame needs to be assembled
+            Assertions.assertEquals(Messages, decode(codec, ByteBuffer.wrap(encoded)), prefix.name());
+
+            // one byte at a time: every prefix and frame is split
+            var received = new ArrayList<String>();
+            var decoder  = codec.decoder(frame -> received.add(StandardCharsets.UTF_8.decode(frame).toString()));
+            for (var b : encoded)
+                decoder.feed(ByteBuffer.wrap(new byte[]{ b }));
+            Assertions.assertEquals(Messages, received, prefix.name());
+            Assertions.assertFalse(decoder.isPartial());
+        }
+    }
+
+    @Test
+    public void testInput() throws IOException {
+        var codec    = FrameCodec.builder().build();
+        var received = new ArrayList<String>();
+        var decoder  = codec.decoder(frame -> received.add(StandardCharsets.UTF_8.decode(frame).toString()));
+
+        var frames = decoder.read(new DelegateStream.Input(new ByteArrayInputStream(encode(codec))));
+        Assertions.assertEquals(Messages.size(), frames);
+        Assertions.assertEquals(Messages, received);
+
+        var truncated = Arrays.copyOf(encode(codec), 100);
+        Assertions.assertThrows(EOFException.class,
+                () -> codec.decoder(frame -> {}).read(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    public void testMaxFrameLength() {
+        var codec   = FrameCodec.builder().maxFrameLength(16).build();
+        var payload = new byte[17];
+
+        Assertions.assertThrows(IOException.class, () -> codec.encode(payload, new ByteArrayOutputStream()));
+
+        var header = ByteBuffer.allocate(5);
+        FrameCodec.Prefix.Varint.write(header, Integer.MAX_VALUE);
+        Assertions.assertThrows(IOException.class, () -> codec.decoder(frame -> Assertions.fail()).feed(header.flip()),
+                "oversized frames must be rejected before anything is buffered");
+    }
+
+    @Test
+    public void testMalformedPrefix() {
+        var codec = FrameCodec.builder().build();
+        var bytes = new byte[]{ (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0 };
+        Assertions.assertThrows(IOException.class, () -> codec.decoder(frame -> {}).feed(ByteBuffer.wrap(bytes)));
+    }
+
+    @Test
+    public void testQueueBackpressure() throws Exception {
+        var codec   = FrameCodec.builder().build();
+        var queue   = new ArrayBlockingQueue<ByteBuffer>(1);
+        var decoder = codec.decoder(queue);
+        var encoded = encode(codec);
+
+        var reader = CompletableFuture.runAsync(() -> {
+            try {
+                decoder.feed(ByteBuffer.wrap(encoded));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(100);
+        Assertions.assertFalse(reader.isDone(), "decoding must block while the queue is full");
+
+        var received = new ArrayList<String>();
+        while (received.size() < Messages.size())
+            received.add(StandardCharsets.UTF_8.decode(queue.poll(5, TimeUnit.SECONDS)).toString());
+        reader.get(5, TimeUnit.SECONDS);
+        Assertions.assertEquals(Messages, received);
+    }
+
+    @Test
+    public void testChannel() throws Exception {
+        var codec    = FrameCodec.builder().prefix(FrameCodec.Prefix.Fixed32).build();
+        var pipe     = Pipe.open();
+        var received = new ArrayList<String>();
+
+        var writer = CompletableFuture.runAsync(() -> {
+            try (var sink = pipe.sink()) {
+                for (var message : Messages)
+                    codec.encode(StandardCharsets.UTF_8.encode(message), sink);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        var frames = codec.decoder(frame -> received.add(StandardCharsets.UTF_8.decode(frame).toString())).read(pipe.source());
+        writer.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(Messages.size(), frames);
+        Assertions.assertEquals(Messages, received);
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkDecode() throws IOException {
+        final var count   = 1_000_000;
+        var       codec   = FrameCodec.builder().build();
+        var       payload = new byte[100];
+        var       out     = new ByteArrayOutputStream(count * (payload.length + 1));
+        for (var i = 0; i < count; i++)
+            codec.encode(payload, out);
+        var encoded = out.toByteArray();
+
+        var bytes   = new long[1];
+        var decoder = codec.decoder(frame -> bytes[0] += frame.remaining());
+        var start   = System.nanoTime();
+        decoder.read(new ByteArrayInputStream(encoded));
+        var nanos = System.nanoTime() - start;
+
+        Assertions.assertEquals(count, decoder.getFrames());
+        Assertions.assertEquals((long) count * payload.length, bytes[0]);
+        System.out.printf("decode: %,8.1f frames/ms%n", count / (nanos / 1e6));
+    }
+
+    private static byte[] encode(FrameCodec codec) throws IOException {
+        var out = new ByteArrayOutputStream();
+        for (var message : Messages)
+            codec.encode(message.getBytes(StandardCharsets.UTF_8), out);
+        return out.toByteArray();
+    }
+
+    private static List<String> decode(FrameCodec codec, ByteBuffer data) throws IOException {
+        var received = new ArrayList<String>();
+        codec.decoder(frame -> received.add(StandardCharsets.UTF_8.decode(frame).toString())).feed(data);
+        return received;
+    }
+}
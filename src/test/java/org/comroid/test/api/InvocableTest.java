@@ -0,0 +1,75 @@
+package org.comroid.test.api;
+
+import org.comroid.api.func.util.Invocable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+public class InvocableTest {
+    @Test
+    public void testMethodHandle() throws Exception {
+        var target = new Target();
+        var concat = Target.class.getMethod("concat", String.class, Integer.class);
+
+        var invocable = Invocable.<String>ofMethodHandle(target, concat);
+        Assertions.assertEquals("a1", invocable.invoke(null, "a", 1));
+        Assertions.assertEquals("b2", invocable.autoInvoke(2, "b"));
+        Assertions.assertEquals("c3", invocable.autoInvoke(null, 3L, 3, "c"), "null and unused arguments must be skipped");
+
+        var twice = Invocable.<Integer>ofMethodHandle(Target.class.getMethod("twice", int.class));
+        Assertions.assertEquals(8, twice.autoInvoke("x", 4));
+
+        var fail = Invocable.ofMethodHandle(target, Target.class.getMethod("fail"));
+        var ex   = Assertions.assertThrows(InvocationTargetException.class, () -> fail.invoke(null));
+        Assertions.assertInstanceOf(IllegalStateException.class, ex.getCause());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> invocable.invoke(null, 1, "a"), "wrong argument types");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> invocable.invoke(null, "a"), "wrong argument count");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> twice.invoke(null, (Object) null), "null primitive");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> invocable.invoke("other target", "a", 1), "wrong target");
+
+        var cast = Invocable.ofMethodHandle(target, Target.class.getMethod("cast"));
+        ex = Assertions.assertThrows(InvocationTargetException.class, () -> cast.invoke(null));
+        Assertions.assertInstanceOf(ClassCastException.class, ex.getCause(), "exceptions of the method itself must be wrapped");
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkAutoInvoke() throws Exception {
+        final var calls  = 1_000_000;
+        var       target = new Target();
+        var       concat = Target.class.getMethod("concat", String.class, Integer.class);
+
+        for (var invocable : new Invocable[]{
+                Invocable.ofMethodCall(target, concat), Invocable.ofMethodHandle(target, concat)
+        }) {
+            var start = System.nanoTime();
+            for (var i = 0; i < calls; i++)
+                invocable.autoInvoke(i, "x");
+            var nanos = System.nanoTime() - start;
+
+            System.out.printf("%s: %,6.1f ns/call%n", invocable.getAlternateName(), (double) nanos / calls);
+        }
+    }
+
+    public static class Target {
+        public static int twice(int x) {
+            return x * 2;
+        }
+
+        public String concat(String str, Integer i) {
+            return str + i;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("expected");
+        }
+
+        public String cast() {
+            Object number = 1;
+            return (String) number;
+        }
+    }
+}
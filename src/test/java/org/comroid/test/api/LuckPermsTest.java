@@ -0,0 +1,133 @@
+package org.comroid.test.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.comroid.api.data.seri.adp.JSON;
+import org.comroid.api.func.util.Event;
+import org.comroid.api.model.Authentication;
+import org.comroid.api.net.REST;
+import org.comroid.api.net.luckperms.LuckPermsApiWrapper;
+import org.comroid.api.net.luckperms.component.UserApi;
+import org.comroid.api.net.luckperms.model.dto.PermissionCheckResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class LuckPermsTest {
+    private final AtomicInteger  calls       = new AtomicInteger();
+    private final AtomicInteger  running     = new AtomicInteger();
+    private final AtomicInteger  maxRunning  = new AtomicInteger();
+    private volatile CountDownLatch release  = new CountDownLatch(0);
+    private       HttpServer     server;
+    private       UserApi        users;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/user/", this::respond);
+        server.start();
+
+        var wrapper = LuckPermsApiWrapper.builder()
+                // the in-repo parser; Jackson is not on the test classpath
+                .rest(new REST(JSON.Parser, null, REST.Default.getExecutor()))
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .credentials(Authentication.ofToken("token"))
+                .cacheTtl(Duration.ofMillis(300))
+                .build();
+        users = wrapper.child(UserApi.class).get();
+    }
+
+    @AfterEach
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testCache() throws InterruptedException {
+        var id = UUID.randomUUID();
+
+        Assertions.assertTrue(check(id).result());
+        Assertions.assertTrue(check(id).result());
+        Assertions.assertEquals(1, calls.get(), "second check must be served from cache");
+
+        users.invalidate(id);
+        check(id);
+        Assertions.assertEquals(2, calls.get(), "invalidated user must be fetched again");
+
+        var bus = new Event.Bus<UUID>().setExecutor(Runnable::run);
+        users.invalidateOn(bus);
+        bus.publish(id);
+        check(id);
+        Assertions.assertEquals(3, calls.get(), "user invalidated by event must be fetched again");
+
+        Thread.sleep(500);
+        check(id);
+        Assertions.assertEquals(4, calls.get(), "expired user must be fetched again");
+    }
+
+    @Test
+    public void testCoalescing() {
+        release = new CountDownLatch(1);
+        var id      = UUID.randomUUID();
+        var futures = new ArrayList<CompletableFuture<PermissionCheckResult>>();
+        for (var i = 0; i < 8; i++)
+            futures.add(users.checkPermission(id, "test.permission"));
+        release.countDown();
+
+        futures.forEach(future -> Assertions.assertTrue(future.join().result()));
+        Assertions.assertEquals(1, calls.get(), "concurrent identical lookups must share one request");
+    }
+
+    @Test
+    public void testBulk() {
+        var ids = Stream.generate(UUID::randomUUID).limit(100).toList();
+
+        var results = users.checkPermission(ids, "test.permission").join();
+        Assertions.assertEquals(ids, new ArrayList<>(results.keySet()), "results must keep the input order");
+        results.values().forEach(result -> Assertions.assertTrue(result.result()));
+        Assertions.assertEquals(100, calls.get());
+        Assertions.assertTrue(maxRunning.get() <= UserApi.BulkConcurrency,
+                "at most %d lookups may be in flight, was %d".formatted(UserApi.BulkConcurrency, maxRunning.get()));
+
+        users.checkPermission(ids, "test.permission").join();
+        Assertions.assertEquals(100, calls.get(), "repeated bulk lookup must be served from cache");
+    }
+
+    private PermissionCheckResult check(UUID id) {
+        return users.checkPermission(id, "test.permission").join();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        calls.incrementAndGet();
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        try {
+            release.await(5, TimeUnit.SECONDS);
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } finally {
+            running.decrementAndGet();
+        }
+
+        var body = "{\"result\":true,\"node\":null}".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+}
@@ -0,0 +1,205 @@
+package org.comroid.test.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.comroid.api.model.Authentication;
+import org.comroid.api.net.nextcloud.OcsApiWrapper;
+import org.comroid.api.net.nextcloud.component.FilesApi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class NextcloudTest {
+    private static final String Files   = "/remote.php/dav/files/user/";
+    private static final String Uploads = "/remote.php/dav/uploads/user/";
+
+    private final List<String>                mkcols      = new ArrayList<>();
+    private final Set<String>                 directories = ConcurrentHashMap.newKeySet();
+    private final List<String>                puts        = new ArrayList<>();
+    private final Map<Integer, AtomicInteger> chunks      = new ConcurrentHashMap<>();
+    private final AtomicLong                  received    = new AtomicLong();
+    private final AtomicInteger               failures    = new AtomicInteger();
+    private final List<Long>                  moves       = new ArrayList<>();
+    private       HttpServer                  server;
+    private       FilesApi                    files;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/remote.php/dav/", this::respond);
+        server.start();
+
+        var wrapper = OcsApiWrapper.builder()
+                .baseUrl("http://127.0.0.1:" + server.getAddress().getPort())
+                .credentials(Authentication.ofLogin("user", "password"))
+                .build();
+        files = wrapper.child(FilesApi.class).get();
+    }
+
+    @AfterEach
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testMkdirs() {
+        files.mkdirs("a/b/c").join();
+        Assertions.assertEquals(List.of(Files + "a", Files + "a/b", Files + "a/b/c"), mkcols, "prefixes must be created in order");
+
+        files.mkdirs("a/b/d").join();
+        Assertions.assertEquals(Files + "a/b/d", mkcols.getLast());
+        Assertions.assertEquals(4, mkcols.size(), "known directories must be skipped");
+
+        var other = new FilesApi(files.getOcsApi());
+        other.mkdirs("a/b").join(); // existing directories are not an error
+        Assertions.assertEquals(6, mkcols.size());
+    }
+
+    @Test
+    public void testSmallUpload() throws IOException {
+        files.upload("small.txt", generate(10)).join();
+
+        Assertions.assertEquals(List.of(Files + "small.txt"), puts);
+        Assertions.assertEquals(List.of(), mkcols, "small uploads must not be chunked");
+        Assertions.assertEquals(10, received.get());
+    }
+
+    @Test
+    public void testChunkedUpload() {
+        final var size   = 64L << 20;
+        var       upload = new FilesApi.ChunkedUpload("backup.tar", 1 << 20);
+
+        files.upload(upload, generate(size)).join();
+
+        Assertions.assertEquals(List.of(Uploads + upload.getTransferId()), mkcols);
+        Assertions.assertEquals(64, chunks.size());
+        chunks.forEach((number, count) -> Assertions.assertEquals(1, count.get(), "chunk " + number + " uploaded twice"));
+        Assertions.assertEquals(List.of(size), moves);
+        Assertions.assertEquals(size, received.get());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkChunkedUpload() throws InterruptedException {
+        final var size   = 64L << 20;
+        var       upload = new FilesApi.ChunkedUpload("backup.tar", 1 << 20);
+
+        var heap    = new AtomicLong();
+        var running = new AtomicBoolean(true);
+        var sampler = Thread.ofPlatform().start(() -> {
+            var runtime = Runtime.getRuntime();
+            try {
+                while (running.get()) {
+                    heap.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                    Thread.sleep(1);
+                }
+            } catch (InterruptedException ignored) {
+            }
+        });
+        var start = System.nanoTime();
+        files.upload(upload, generate(size)).join();
+        var nanos = System.nanoTime() - start;
+        running.set(false);
+        sampler.join();
+
+        Assertions.assertEquals(size, received.get());
+        System.out.printf("chunked upload: %,8.1f MB/s, peak heap %,d MB%n", size / 1e6 / (nanos / 1e9), heap.get() >> 20);
+    }
+
+    @Test
+    public void testResume() {
+        final var size   = 8L << 20;
+        var       upload = new FilesApi.ChunkedUpload("backup.tar", 1 << 20);
+        failures.set(FilesApi.ChunkRetries + 1);
+
+        Assertions.assertThrows(CompletionException.class, () -> files.upload(upload, generate(size)).join());
+        Assertions.assertFalse(upload.getCompletedChunks().contains(3));
+        Assertions.assertEquals(List.of(), moves);
+
+        files.upload(upload, generate(size)).join();
+        Assertions.assertEquals(8, chunks.size());
+        chunks.forEach((number, count) -> Assertions.assertEquals(1, count.get(), "chunk " + number + " uploaded twice"));
+        Assertions.assertEquals(1, mkcols.size(), "resumed upload must reuse the upload directory");
+        Assertions.assertEquals(List.of(size), moves);
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        var path = exchange.getRequestURI().getPath();
+        var code = 201;
+        try (var in = exchange.getRequestBody()) {
+            var bytes = in.transferTo(OutputStream.nullOutputStream());
+            switch (exchange.getRequestMethod()) {
+                case "MKCOL" -> {
+                    synchronized (mkcols) {
+                        mkcols.add(path);
+                    }
+                    if (!directories.add(path)) code = 405;
+                }
+                case "PUT" -> {
+                    if (path.startsWith(Uploads)) {
+                        var number = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+                        if (number == 3 && failures.getAndDecrement() > 0) code = 500;
+                        else {
+                            received.addAndGet(bytes);
+                            chunks.computeIfAbsent(number, $ -> new AtomicInteger()).incrementAndGet();
+                        }
+                    } else {
+                        received.addAndGet(bytes);
+                        synchronized (puts) {
+                            puts.add(path);
+                        }
+                    }
+                }
+                case "MOVE" -> {
+                    synchronized (moves) {
+                        moves.add(Long.parseLong(exchange.getRequestHeaders().getFirst("OC-Total-Length")));
+                    }
+                }
+                default -> code = 405;
+            }
+        }
+        exchange.sendResponseHeaders(code, -1);
+        exchange.close();
+    }
+
+    private static InputStream generate(long size) {
+        return new InputStream() {
+            private long remaining = size;
+
+            @Override
+            public int read() {
+                if (remaining == 0) return -1;
+                remaining--;
+                return (int) (remaining & 0xFF);
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (remaining == 0) return -1;
+                var n = (int) Math.min(len, remaining);
+                Arrays.fill(b, off, off + n, (byte) 7);
+                remaining -= n;
+                return n;
+            }
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package org.comroid.test.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.comroid.api.data.seri.DataNode;
+import org.comroid.api.data.seri.adp.JSON;
+import org.comroid.api.net.REST;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RestTest {
+    private final AtomicInteger  calls        = new AtomicInteger();
+    private final List<String>   ifNoneMatch  = new ArrayList<>();
+    private final CountDownLatch release      = new CountDownLatch(1);
+    private       HttpServer     server;
+    private       REST           rest;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/fresh", exchange -> respond(exchange, 200, "max-age=60", null));
+        server.createContext("/etag", exchange -> {
+            var tag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            synchronized (ifNoneMatch) {
+                ifNoneMatch.add(tag);
+            }
+            respond(exchange, "\"v1\"".equals(tag) ? 304 : 200, "no-cache", "\"v1\"");
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            respond(exchange, 200, "no-store", null);
+        });
+        server.createContext("/echo", exchange -> {
+            calls.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (var in = exchange.getRequestBody(); var out = exchange.getResponseBody()) {
+                in.transferTo(out);
+            }
+        });
+        server.start();
+        // the in-repo parser; Jackson is not on the test classpath
+        rest = new REST(JSON.Parser, null, REST.Default.getExecutor()).withCache();
+    }
+
+    @AfterEach
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testFreshHit() {
+        var first  = get("/fresh");
+        var second = get("/fresh");
+
+        Assertions.assertEquals(1, calls.get(), "fresh response must be served from cache");
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, second.getBody().get("n").asInt());
+    }
+
+    @Test
+    public void testRevalidation() {
+        var first  = get("/etag");
+        var second = get("/etag");
+
+        Assertions.assertEquals(2, calls.get(), "no-cache response must be revalidated");
+        Assertions.assertEquals(List.of("null", "\"v1\""), ifNoneMatch.stream().map(String::valueOf).toList());
+        Assertions.assertEquals(200, second.getResponseCode(), "304 must be answered from cache");
+        Assertions.assertEquals(first.getBody().get("n").asInt(), second.getBody().get("n").asInt());
+    }
+
+    @Test
+    public void testCoalescing() {
+        var futures = new ArrayList<CompletableFuture<REST.Response>>();
+        for (var i = 0; i < 8; i++)
+            futures.add(rest.new Request(REST.Method.GET, uri("/slow")).execute());
+        release.countDown();
+
+        var responses = futures.stream().map(CompletableFuture::join).toList();
+        Assertions.assertEquals(1, calls.get(), "concurrent identical GETs must share one round-trip");
+        responses.forEach(response -> Assertions.assertSame(responses.get(0), response));
+
+        rest.new Request(REST.Method.GET, uri("/slow")).execute().join();
+        Assertions.assertEquals(2, calls.get(), "no-store response must not be cached");
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        var body = new JSON.Array();
+        for (var i = 0; i < 10_000; i++) {
+            var obj = new JSON.Object();
+            obj.set("id", i);
+            obj.set("name", "entry " + i);
+            body.append(obj);
+        }
+
+        var echo = rest.new Request(REST.Method.POST, uri("/echo"), body).execute().join().validate2xxOK();
+        Assertions.assertEquals(10_000, echo.getBody().asArray().size());
+        Assertions.assertEquals("entry 9999", echo.getBody().get(9999).get("name").asString());
+
+        var lines = rest.new Request(REST.Method.POST, uri("/echo"), DataNode.bytes("a\nb\nc".getBytes(StandardCharsets.UTF_8)))
+                .executeLines()
+                .join();
+        Assertions.assertEquals(List.of("a", "b", "c"), lines.body().toList());
+
+        var stream = rest.new Request(REST.Method.POST, uri("/echo"), DataNode.bytes(new byte[]{ 1, 2, 3 }))
+                .executeStream()
+                .join();
+        try (var in = stream.body()) {
+            Assertions.assertArrayEquals(new byte[]{ 1, 2, 3 }, in.readAllBytes());
+        }
+    }
+
+    private REST.Response get(String path) {
+        return rest.new Request(REST.Method.GET, uri(path)).execute().join().validate2xxOK();
+    }
+
+    private String uri(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void respond(HttpExchange exchange, int code, String cacheControl, String etag) throws IOException {
+        var body = ("{\"n\":" + calls.incrementAndGet() + "}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (etag != null) exchange.getResponseHeaders().add("ETag", etag);
+        if (code == 304) {
+            exchange.sendResponseHeaders(code, -1);
+        } else {
+            exchange.sendResponseHeaders(code, body.length);
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+}
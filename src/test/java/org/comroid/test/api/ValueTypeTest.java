@@ -0,0 +1,105 @@
+package org.comroid.test.api;
+
+import org.comroid.api.data.RegExpUtil;
+import org.comroid.api.data.seri.type.ArrayValueType;
+import org.comroid.api.data.seri.type.BoundValueType;
+import org.comroid.api.data.seri.type.StandardValueType;
+import org.comroid.api.data.seri.type.ValueType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+public class ValueTypeTest {
+    @Test
+    public void testFindGoodType() {
+        Assertions.assertNull(StandardValueType.findGoodType(null));
+        Assertions.assertNull(StandardValueType.findGoodType("null"));
+        Assertions.assertEquals(42, StandardValueType.findGoodType("42"));
+        Assertions.assertEquals(-42, StandardValueType.findGoodType("-42"));
+        Assertions.assertEquals(999_999_999, StandardValueType.findGoodType("999999999"));
+        Assertions.assertEquals(1_234_567_890L, StandardValueType.findGoodType("1234567890"));
+        Assertions.assertEquals(Long.MIN_VALUE, StandardValueType.findGoodType(String.valueOf(Long.MIN_VALUE)));
+        Assertions.assertEquals("99999999999999999999", StandardValueType.findGoodType("99999999999999999999"));
+        Assertions.assertEquals(3.25, StandardValueType.findGoodType("3.25"));
+        Assertions.assertEquals(3.25, StandardValueType.findGoodType("3,25"));
+        Assertions.assertEquals(true, StandardValueType.findGoodType("true"));
+        Assertions.assertEquals(false, StandardValueType.findGoodType("false"));
+
+        var uuid = UUID.randomUUID();
+        Assertions.assertEquals(uuid, StandardValueType.findGoodType(uuid.toString()));
+
+        for (var text : new String[]{ "", "-", "1.", ".5", "1.2.3", "1e5", "True", "abc", uuid.toString().toUpperCase() })
+            Assertions.assertEquals(text, StandardValueType.findGoodType(text), "must not be converted: " + text);
+    }
+
+    @Test
+    public void testLookup() {
+        Assertions.assertSame(StandardValueType.INTEGER, ValueType.of(int.class));
+        Assertions.assertSame(StandardValueType.INTEGER, ValueType.of(Integer.class));
+        Assertions.assertSame(StandardValueType.STRING, StandardValueType.forClass(String.class).get());
+        Assertions.assertSame(StandardValueType.LONG, StandardValueType.typeOf(1L));
+        Assertions.assertNull(StandardValueType.typeOf(new Object()));
+        Assertions.assertSame(StandardValueType.VOID, StandardValueType.typeOf(null));
+        Assertions.assertInstanceOf(ArrayValueType.class, ValueType.of(String[].class));
+        Assertions.assertInstanceOf(BoundValueType.class, ValueType.of(ValueTypeTest.class));
+        Assertions.assertSame(ValueType.of(ValueTypeTest.class), ValueType.of(ValueTypeTest.class));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkFindGoodType() {
+        final var calls = 1_000_000;
+        // roughly the scalar mix of typical API responses: mostly strings and small ids
+        var samples = new String[]{
+                "42", "id_1337", "Logan_Mcclain", "true", "1700000000123", "3.14159", "false", "null",
+                UUID.randomUUID().toString(), "https://example.org/users/42", "-17", "entry 9999"
+        };
+
+        for (var entry : Map.<String, Function<String, Object>>of(
+                "regex", ValueTypeTest::findGoodTypeRegex,
+                "single pass", StandardValueType::findGoodType).entrySet()) {
+            var start = System.nanoTime();
+            var hash  = 0;
+            for (var i = 0; i < calls; i++)
+                hash += Objects.hashCode(entry.getValue().apply(samples[i % samples.length]));
+            var nanos = System.nanoTime() - start;
+
+            System.out.printf("%s: %,8.1f ns/call (%d)%n", entry.getKey(), (double) nanos / calls, hash);
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkLookup() {
+        final var calls   = 1_000_000;
+        var       classes = new Class<?>[]{ int.class, String.class, Long.class, UUID.class, String[].class, ValueTypeTest.class };
+
+        var start = System.nanoTime();
+        for (var i = 0; i < calls; i++)
+            Assertions.assertNotNull(ValueType.of(classes[i % classes.length]));
+        var nanos = System.nanoTime() - start;
+
+        System.out.printf("ValueType.of: %,8.1f ns/call%n", (double) nanos / calls);
+    }
+
+    private static Object findGoodTypeRegex(String parse) {
+        if (parse == null || parse.equals("null"))
+            return null;
+        if (parse.matches("\\d{1,9}"))
+            return Integer.parseInt(parse);
+        if (parse.matches("\\d{10,}"))
+            return Long.parseLong(parse);
+        if (parse.matches("\\d+[.]\\d+"))
+            return Double.parseDouble(parse);
+        if (parse.matches("(true)|(false)"))
+            return Boolean.parseBoolean(parse);
+        if (parse.matches(RegExpUtil.UUID4_PATTERN))
+            return UUID.fromString(parse);
+        return parse;
+    }
+}
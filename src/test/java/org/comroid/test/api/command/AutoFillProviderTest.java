@@ -1,14 +1,21 @@
 package org.comroid.test.api.command;
 
 import org.comroid.api.func.exc.ThrowingIntFunction;
+import org.comroid.commands.autofill.IAutoFillProvider;
 import org.comroid.commands.autofill.impl.DurationAutoFillProvider;
 import org.comroid.commands.autofill.impl.EnumBasedAutoFillProvider;
 import org.comroid.util.TestUtil;
 import org.junit.Test;
 import org.junit.jupiter.api.RepeatedTest;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -70,6 +77,69 @@ public class AutoFillProviderTest {
         assertArrayEquals(expected, results);
     }
 
+    @Test
+    public void wildcardFilter() {
+        var check = IAutoFillProvider.stringCheck("num*one");
+        assertTrue(check.test("NumOne"));
+        assertTrue(check.test("NumOnetyOne"));
+        assertFalse(check.test("NumTwo"));
+
+        var literal = IAutoFillProvider.stringCheck("a.*");
+        assertTrue(literal.test("a.b"));
+        assertFalse(literal.test("axb"), "regex characters must be matched literally");
+    }
+
+    @Test
+    public void cachedNarrowing() {
+        var calls = new AtomicInteger();
+        var provider = ((IAutoFillProvider) (usage, argName, currentValue) -> {
+            calls.incrementAndGet();
+            return Arrays.stream(TestEnum.values()).map(TestEnum::name).filter(IAutoFillProvider.stringCheck(currentValue));
+        }).cached(Duration.ofSeconds(10));
+
+        assertArrayEquals(new String[]{ "NumOne", "NumTwo", "NumThree", "NumOnetyOne" },
+                helper.directInvokeProvider(provider, "Num"));
+        assertArrayEquals(new String[]{ "NumTwo", "NumThree" }, helper.directInvokeProvider(provider, "NumT"));
+        assertArrayEquals(new String[]{ "NumTwo", "NumThree" }, helper.directInvokeProvider(provider, "numt"));
+        assertEquals(1, calls.get(), "longer values must be narrowed from the cached prefix");
+
+        helper.directInvokeProvider(provider, "Un");
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void cachedPerArgument() {
+        var provider = ((IAutoFillProvider) (usage, argName, currentValue) -> Stream.of(argName + "Value")).cached(
+                Duration.ofSeconds(10));
+
+        assertEquals(List.of("firstValue"), provider.autoFill(null, "first", "").toList());
+        assertEquals(List.of("secondValue"), provider.autoFill(null, "second", "").toList(),
+                "results of one argument must not be used for another");
+    }
+
+    @Test
+    public void asyncBudget() throws Exception {
+        var release = new CountDownLatch(1);
+        IAutoFillProvider slow = (usage, argName, currentValue) -> Stream.concat(Stream.of("fast"),
+                Stream.generate(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return "slow";
+                }).limit(1));
+
+        try {
+            var partial = helper.callAutoCompleteAsync(slow, "", Duration.ofMillis(100)).get(5, TimeUnit.SECONDS);
+            assertArrayEquals(new String[]{ "fast" }, partial, "options collected within the budget must be returned");
+        } finally {
+            release.countDown();
+        }
+        assertArrayEquals(new String[]{ "fast", "slow" },
+                helper.callAutoCompleteAsync(slow, "", Duration.ofSeconds(5)).get(5, TimeUnit.SECONDS));
+    }
+
     private enum TestEnum {
         NumOne, NumTwo, NumThree, NumOnetyOne, Unknown
     }
@@ -2,13 +2,26 @@ package org.comroid.test.api.command;
 
 import org.comroid.annotations.Alias;
 import org.comroid.annotations.Description;
+import org.comroid.api.func.util.Invocable;
 import org.comroid.api.net.Token;
 import org.comroid.commands.Command;
 import org.comroid.commands.impl.CommandManager;
+import org.comroid.commands.model.CommandContextProvider;
+import org.comroid.commands.model.CommandError;
+import org.comroid.commands.model.CommandResponseHandler;
+import org.comroid.commands.node.Call;
+import org.comroid.commands.node.Group;
+import org.comroid.commands.node.Parameter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 public class CommandTest {
     public static final String Desc = "this is a cool command";
@@ -34,10 +47,128 @@ public class CommandTest {
         Assertions.assertEquals(name + " is lit af", execute(cmdr, "user " + name), "failed to execute command");
     }
 
+    @Test
+    public void testContext() {
+        var cmdr = new CommandManager();
+        cmdr.register(new Greeter());
+
+        CommandResponseHandler handler  = (usage, response, args) -> {};
+        CommandContextProvider provider = it -> it instanceof Integer i ? Stream.of("user" + i) : Stream.empty();
+        var                    command  = new String[]{ "greet" };
+        Assertions.assertEquals("hi null", cmdr.execute(handler, command, null, 7));
+
+        cmdr.addChild(provider);
+        Assertions.assertEquals("hi user7", cmdr.execute(handler, command, null, 7), "added provider must be used");
+        var usage = cmdr.createUsageBase(handler, command, 7);
+        Assertions.assertEquals(List.of("user7"), usage.contextOf(CharSequence.class));
+        Assertions.assertEquals(Optional.of(7), usage.findContext(Comparable.class), "first instance in context order");
+
+        cmdr.removeChildren(provider);
+        Assertions.assertEquals("hi null", cmdr.execute(handler, command, null, 7), "removed provider must not be used");
+
+        var                    state   = new AtomicInteger(1);
+        CommandContextProvider counter = it -> it instanceof AtomicInteger ai ? Stream.of((long) ai.get()) : Stream.empty();
+        cmdr.addChild(counter);
+        cmdr.addChild(state);
+        Assertions.assertEquals(List.of(1L), cmdr.createUsageBase(handler, command).contextOf(Long.class));
+        state.set(2);
+        Assertions.assertEquals(List.of(2L), cmdr.createUsageBase(handler, command).contextOf(Long.class),
+                "context of children must be expanded for every usage");
+    }
+
+    @Test
+    public void testRoutesFollowNodes() {
+        var                    cmdr    = new CommandManager();
+        CommandResponseHandler handler = (usage, response, args) -> {};
+        var                    greeter = cmdr.register(new Greeter());
+        Assertions.assertEquals("hi null", cmdr.execute(handler, new String[]{ "greet" }, null));
+
+        // same node count, different nodes
+        var farewell = new CommandManager().register(new Farewell());
+        cmdr.getBaseNodes().removeAll(greeter);
+        cmdr.getBaseNodes().addAll(farewell);
+        Assertions.assertEquals("bye null", cmdr.execute(handler, new String[]{ "bye" }, null));
+        Assertions.assertThrows(CommandError.class, () -> cmdr.execute(handler, new String[]{ "greet" }, null));
+
+        Assertions.assertTrue(cmdr.unregister(farewell));
+        Assertions.assertThrows(CommandError.class, () -> cmdr.execute(handler, new String[]{ "bye" }, null));
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkDispatch() throws Exception {
+        var method    = CommandTest.class.getMethod("echo", String.class);
+        var attribute = method.getAnnotation(Command.class);
+        var javaParam = method.getParameters()[0];
+        var param = Parameter.builder()
+                .name("value")
+                .attribute(javaParam.getAnnotation(Command.Arg.class))
+                .param(javaParam)
+                .required(true)
+                .index(0)
+                .build();
+
+        var cmdr = new CommandManager();
+        for (var g = 0; g < 100; g++) {
+            var group = Group.builder()
+                    .name("group" + g)
+                    .attribute(attribute)
+                    .registeredTarget(CommandTest.class)
+                    .source(CommandTest.class);
+            for (var c = 0; c < 4; c++)
+                group.call(Call.builder()
+                        .name("call" + c)
+                        .attribute(attribute)
+                        .registeredTarget(CommandTest.class)
+                        .method(method)
+                        .callable(Invocable.ofMethodHandle(method))
+                        .parameter(param)
+                        .build());
+            cmdr.getBaseNodes().add(group.build());
+        }
+
+        CommandResponseHandler handler = (usage, response, args) -> {};
+        var                    command = new String[]{ "group42", "call3", "hello" };
+        Assertions.assertEquals("hello", cmdr.execute(handler, command, null));
+
+        final var calls = 200_000;
+        var       usage = cmdr.createUsageBase(handler, command);
+        var       start = System.nanoTime();
+        for (var i = 0; i < calls; i++)
+            usage.advanceFull();
+        var nanos = System.nanoTime() - start;
+        System.out.printf("advanceFull: %,8.1f ns/call%n", (double) nanos / calls);
+
+        start = System.nanoTime();
+        for (var i = 0; i < calls; i++)
+            cmdr.execute(handler, command, null);
+        nanos = System.nanoTime() - start;
+        System.out.printf("execute:     %,8.1f ns/call%n", (double) nanos / calls);
+    }
+
+    @Command
+    public static String echo(@Command.Arg String value) {
+        return value;
+    }
+
     public Object execute(CommandManager cmdr, String command) {
         return cmdr.execute(CommandManager.DefaultHandler, command.split(" "), Map.of());
     }
 
+    public static class Greeter {
+        @Command
+        public String greet(CharSequence name) {
+            return "hi " + name;
+        }
+    }
+
+    public static class Farewell {
+        @Command
+        public String bye(CharSequence name) {
+            return "bye " + name;
+        }
+    }
+
     @Command
     public static class user {
         @Command
@@ -0,0 +1,182 @@
+package org.comroid.test.api.delegatestream;
+
+import org.comroid.api.func.util.DelegateStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RedirectTest {
+    private static final int Processes = 32;
+    private static final int Pipes     = 64;
+    private static final int Size      = 1 << 20;
+
+    @Test
+    public void testProcessRedirect() throws Exception {
+        var threads   = ManagementFactory.getThreadMXBean();
+        var received  = new AtomicLong();
+        var transfers = new ArrayList<DelegateStream.Transfer>();
+        var processes = new ArrayList<Process>();
+
+        for (var i = 0; i < Processes; i++)
+            processes.add(new ProcessBuilder("sh", "-c", "sleep 0.5; head -c " + Size + " /dev/zero").start());
+        // the reaper threads belong to the processes, not to the redirects
+        var baseline = threads.getThreadCount();
+        for (var process : processes)
+            transfers.add(DelegateStream.redirect(process.getInputStream(), counting(received)));
+        var peak = awaitPeakThreads(transfers);
+
+        Assertions.assertEquals((long) Processes * Size, received.get());
+        transfers.forEach(transfer -> Assertions.assertEquals(Size, transfer.getBytes(), transfer::toString));
+        // process pipes are not selectable, so each blocked read holds a carrier on top of the scheduler's own
+        var bound = Processes + Runtime.getRuntime().availableProcessors();
+        Assertions.assertTrue(peak - baseline <= bound,
+                "%d process redirects must hold at most one carrier each, %d threads were started".formatted(Processes, peak - baseline));
+        processes.forEach(Process::destroy);
+    }
+
+    @Test
+    public void testSelectableSourcesShareThreads() throws Exception {
+        var threads  = ManagementFactory.getThreadMXBean();
+        var received = new AtomicLong();
+        var pipes    = new ArrayList<Pipe>();
+        var writers  = new ArrayList<Thread>();
+
+        for (var i = 0; i < Pipes; i++) {
+            var pipe = Pipe.open();
+            pipes.add(pipe);
+            writers.add(Thread.ofVirtual().start(() -> {
+                try (var sink = pipe.sink()) {
+                    var data = ByteBuffer.allocate(Size);
+                    while (data.hasRemaining())
+                        sink.write(data);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        // the writers fill their pipes and park, which starts the carriers and pollers they need
+        Thread.sleep(200);
+        var baseline  = threads.getThreadCount();
+        var transfers = new ArrayList<DelegateStream.Transfer>();
+        for (var pipe : pipes)
+            transfers.add(DelegateStream.redirect(pipe.source(), countingChannel(received)));
+        var peak = awaitPeakThreads(transfers);
+        for (var writer : writers)
+            writer.join();
+
+        Assertions.assertEquals((long) Pipes * Size, received.get());
+        transfers.forEach(transfer -> Assertions.assertEquals(Size, transfer.getBytes(), transfer::toString));
+        // the selector thread, plus carriers if the writers did not need all of them
+        var bound = 1 + Runtime.getRuntime().availableProcessors();
+        Assertions.assertTrue(peak - baseline <= bound,
+                "%d selectable redirects must share the selector thread, %d threads were started".formatted(Pipes, peak - baseline));
+    }
+
+    @Test
+    public void testProcessClosesAfterDrain() throws Exception {
+        var io  = DelegateStream.IO.execute("sh", "-c", "sleep 0.5; printf 'hello\\nworld\\n'");
+        var out = new ByteArrayOutputStream();
+        io.redirect(out);
+
+        io.onClose().get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals("hello\nworld\n", out.toString());
+        Assertions.assertTrue(io.transfers().allMatch(DelegateStream.Transfer::isDone));
+    }
+
+    @Test
+    public void testChannelRedirect() throws Exception {
+        var in       = Pipe.open();
+        var out      = Pipe.open();
+        var transfer = DelegateStream.redirect(in.source(), out.sink());
+
+        var data = new byte[Size];
+        for (var i = 0; i < data.length; i++)
+            data[i] = (byte) i;
+        var writer = CompletableFuture.runAsync(() -> {
+            try (var sink = in.sink()) {
+                sink.write(ByteBuffer.wrap(data));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        var received = new byte[Size];
+        try (var source = Channels.newInputStream(out.source())) {
+            Assertions.assertEquals(Size, source.readNBytes(received, 0, Size));
+        }
+        writer.join();
+
+        Assertions.assertEquals(Size, (long) transfer.getDone().get(10, TimeUnit.SECONDS), "transfer must end at EOF");
+        Assertions.assertArrayEquals(data, received);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        var pipe     = Pipe.open();
+        var transfer = DelegateStream.redirect(Channels.newInputStream(pipe.source()), OutputStream.nullOutputStream());
+
+        transfer.close();
+        Assertions.assertEquals(0L, transfer.getDone().get(10, TimeUnit.SECONDS));
+        pipe.sink().close();
+    }
+
+    private static int awaitPeakThreads(List<DelegateStream.Transfer> transfers) throws Exception {
+        var threads = ManagementFactory.getThreadMXBean();
+        var all     = CompletableFuture.allOf(transfers.stream().map(DelegateStream.Transfer::getDone).toArray(CompletableFuture[]::new));
+        var peak    = threads.getThreadCount();
+        var timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (!all.isDone() && System.nanoTime() < timeout) {
+            peak = Math.max(peak, threads.getThreadCount());
+            Thread.sleep(10);
+        }
+        all.get(0, TimeUnit.SECONDS);
+        return peak;
+    }
+
+    private static WritableByteChannel countingChannel(AtomicLong counter) {
+        return new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                var n = src.remaining();
+                src.position(src.limit());
+                counter.addAndGet(n);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static OutputStream counting(AtomicLong counter) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) {
+                counter.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                counter.addAndGet(len);
+            }
+        };
+    }
+}
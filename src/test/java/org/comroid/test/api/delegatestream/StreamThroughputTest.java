@@ -0,0 +1,172 @@
+package org.comroid.test.api.delegatestream;
+
+import org.comroid.api.func.util.DelegateStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.spec.IvParameterSpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class StreamThroughputTest {
+    private static final int Size         = 64 << 20;
+    private static final int BaselineSize = 4 << 20;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        var data = generate(1 << 20);
+        var out  = new ByteArrayOutputStream(data.length);
+
+        try (var output = new DelegateStream.Output(out).setAutoFlush(false)) {
+            new DelegateStream.Input(new ByteArrayInputStream(data)).transferTo(output);
+        }
+        Assertions.assertArrayEquals(data, out.toByteArray());
+    }
+
+    @Test
+    public void testNewlineFlush() throws IOException {
+        var chunks = new ArrayList<String>();
+        var output = new DelegateStream.Output(bytes -> chunks.add(new String(bytes, StandardCharsets.UTF_8)), 16);
+
+        output.write("a\nbc\nd".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(List.of("a\n", "bc\n"), chunks, "bulk writes must flush after every newline");
+
+        output.flush();
+        Assertions.assertEquals(List.of("a\n", "bc\n", "d"), chunks);
+    }
+
+    @Test
+    public void testCompressEncryptRoundTrip() throws Exception {
+        var data = generate(8 << 20);
+        var key  = KeyGenerator.getInstance("AES").generateKey();
+        var iv   = new IvParameterSpec(new byte[16]);
+        var enc  = Cipher.getInstance("AES/CTR/NoPadding");
+        var dec  = Cipher.getInstance("AES/CTR/NoPadding");
+        enc.init(Cipher.ENCRYPT_MODE, key, iv);
+        dec.init(Cipher.DECRYPT_MODE, key, iv);
+
+        var sealed = new ByteArrayOutputStream();
+        try (var output = new DelegateStream.Output(sealed).setAutoFlush(false).encrypt(enc).compress().setAutoFlush(false)) {
+            output.write(data);
+        }
+        try (var input = new DelegateStream.Input(new ByteArrayInputStream(sealed.toByteArray())).decrypt(dec).decompress()) {
+            Assertions.assertArrayEquals(data, input.readAllBytes());
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkTransfer() throws IOException {
+        var data = generate(1 << 20);
+
+        var start = System.nanoTime();
+        var count = new CountingOutputStream();
+        try (
+                var input = new DelegateStream.Input(repeat(data, BaselineSize));
+                var output = new DelegateStream.Output(count).setAutoFlush(false)
+        ) {
+            int b;
+            while ((b = input.read()) != -1)
+                output.write(b);
+        }
+        report("per-byte", BaselineSize, count.count, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        count = new CountingOutputStream();
+        try (
+                var input = new DelegateStream.Input(repeat(data, Size));
+                var output = new DelegateStream.Output(count).setAutoFlush(false)
+        ) {
+            input.transferTo(output);
+        }
+        report("bulk", Size, count.count, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        count = new CountingOutputStream();
+        var io = new DelegateStream.IO();
+        io.redirect(repeat(data, Size), count);
+        io.input().get().transferTo(io.output().get());
+        report("IO redirect", Size, count.count, System.nanoTime() - start);
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkCompressEncrypt() throws Exception {
+        var data = generate(1 << 20);
+        var enc  = Cipher.getInstance("AES/CTR/NoPadding");
+        enc.init(Cipher.ENCRYPT_MODE, KeyGenerator.getInstance("AES").generateKey(), new IvParameterSpec(new byte[16]));
+
+        var start = System.nanoTime();
+        var count = new CountingOutputStream();
+        try (
+                var input = new DelegateStream.Input(repeat(data, Size));
+                var output = new DelegateStream.Output(count).setAutoFlush(false).encrypt(enc).compress().setAutoFlush(false)
+        ) {
+            input.transferTo(output);
+        }
+        var nanos = System.nanoTime() - start;
+
+        Assertions.assertTrue(count.count > 0);
+        System.out.printf("compress + encrypt: %,8.1f MB/s (%,d -> %,d bytes)%n", Size / 1e6 / (nanos / 1e9), Size, count.count);
+    }
+
+    private static void report(String name, long expected, long actual, long nanos) {
+        Assertions.assertEquals(expected, actual, name + " lost data");
+        System.out.printf("%s: %,8.1f MB/s%n", name, expected / 1e6 / (nanos / 1e9));
+    }
+
+    // half random, half text; compressible like typical logs and backups
+    private static byte[] generate(int size) {
+        var data = new byte[size];
+        new Random(42).nextBytes(data);
+        var text = "the quick brown fox jumps over the lazy dog\n".getBytes(StandardCharsets.US_ASCII);
+        for (var i = 0; i < size / 2; i++)
+            data[i] = text[i % text.length];
+        return data;
+    }
+
+    private static InputStream repeat(byte[] data, long size) {
+        return new InputStream() {
+            private long position;
+
+            @Override
+            public int read() {
+                return position < size ? data[(int) (position++ % data.length)] & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (position >= size) return -1;
+                var offset = (int) (position % data.length);
+                var n      = (int) Math.min(Math.min(len, data.length - offset), size - position);
+                System.arraycopy(data, offset, b, off, n);
+                position += n;
+                return n;
+            }
+        };
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.comroid.test.util;
+
+import org.comroid.api.map.Cache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CacheTest {
+    @Test
+    public void testEviction() {
+        var evicted = new ArrayList<Integer>();
+        var cache = Cache.<Integer, String>builder()
+                .maximumSize(3)
+                .concurrencyLevel(1)
+                .deleteCallback((k, v) -> evicted.add(k))
+                .build();
+
+        cache.put(1, "a");
+        cache.put(2, "b");
+        cache.put(3, "c");
+        Assertions.assertEquals("a", cache.get(1)); // 2 is now least recently used
+        cache.put(4, "d");
+
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertNull(cache.get(2), "least recently used entry must be evicted");
+        Assertions.assertEquals(List.of(2), evicted);
+        Assertions.assertEquals(1, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    public void testExpiry() {
+        var time = new AtomicLong();
+        var cache = Cache.<String, String>builder()
+                .expireAfterWrite(Duration.ofSeconds(10))
+                .expireAfterAccess(Duration.ofSeconds(3))
+                .ticker(time::get)
+                .build();
+
+        cache.put("write", "x");
+        cache.put("access", "y");
+        for (var i = 0; i < 4; i++) {
+            time.addAndGet(Duration.ofSeconds(2).toNanos());
+            Assertions.assertEquals("y", cache.get("access"), "entry must live while it is being read");
+            if (i == 1) Assertions.assertNull(cache.get("write"), "entry must expire after access timeout");
+        }
+        time.addAndGet(Duration.ofSeconds(2).toNanos());
+        Assertions.assertNull(cache.get("access"), "entry must expire after write timeout");
+        Assertions.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testReferences() {
+        var deleted    = new ArrayList<String>();
+        var references = new ArrayList<WeakReference<String>>();
+        var cache = Cache.<Integer, String>builder()
+                .referenceCtor((value, queue) -> {
+                    var reference = new WeakReference<>(value, queue);
+                    references.add(reference);
+                    return reference;
+                })
+                .deleteCallback((k, v) -> deleted.add(k + "=" + v))
+                .build();
+
+        cache.put(1, "a");
+        cache.put(2, "b");
+        Assertions.assertEquals("a", cache.get(1));
+
+        // what the garbage collector does to an unreachable value
+        references.getFirst().clear();
+        references.getFirst().enqueue();
+        Assertions.assertNull(cache.get(1), "a collected value must not be returned");
+
+        references.get(1).clear();
+        references.get(1).enqueue();
+        cache.put(3, "c");
+        Assertions.assertEquals(List.of("1=null", "2=null"), deleted, "collected entries must be swept by the next write");
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testLoader() {
+        var cache = Cache.<Integer, String>builder().loader(String::valueOf).build();
+
+        Assertions.assertEquals("1", cache.get(1));
+        Assertions.assertEquals("1", cache.get(1));
+        Assertions.assertNull(cache.getIfPresent(2));
+
+        var stats = cache.stats();
+        Assertions.assertEquals(1, stats.getHitCount());
+        Assertions.assertEquals(2, stats.getMissCount());
+        Assertions.assertEquals(1, stats.getLoadCount());
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testAtomicCompute() throws Exception {
+        var cache = Cache.<String, Integer>builder().build();
+        var loads = new AtomicLong();
+
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            var start = new CountDownLatch(1);
+            var tasks = new ArrayList<Future<?>>();
+            for (var i = 0; i < 8; i++)
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    for (var j = 0; j < 1000; j++) {
+                        cache.computeIfAbsent("once", $ -> (int) loads.incrementAndGet());
+                        cache.merge("sum", 1, Integer::sum);
+                    }
+                    return null;
+                }));
+            start.countDown();
+            for (var task : tasks)
+                task.get(10, TimeUnit.SECONDS);
+        }
+
+        Assertions.assertEquals(1, loads.get(), "concurrent misses must compute the value once");
+        Assertions.assertEquals(8000, cache.get("sum"), "no update may be lost");
+
+        Assertions.assertNull(cache.compute("sum", (k, v) -> null));
+        Assertions.assertFalse(cache.containsKey("sum"));
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkGet() throws Exception {
+        final var keys  = 1 << 16;
+        final var calls = 1 << 22;
+        var cache = Cache.<Integer, Integer>builder().maximumSize(keys / 2).loader(k -> k).build();
+
+        var threads = new Thread[4];
+        var start   = System.nanoTime();
+        for (var t = 0; t < threads.length; t++) {
+            final var seed = t;
+            threads[t] = new Thread(() -> {
+                var x = seed;
+                for (var i = 0; i < calls / threads.length; i++) {
+                    x = x * 1103515245 + 12345;
+                    // skew towards low keys so that the hot set fits into the cache
+                    var key = (x >>> 8) % keys;
+                    cache.get(key % 8 == 0 ? key : key / 8);
+                }
+            });
+            threads[t].start();
+        }
+        for (var thread : threads)
+            thread.join();
+        var nanos = System.nanoTime() - start;
+
+        Assertions.assertTrue(cache.size() <= keys / 2 + 16, "size bound exceeded: " + cache.size());
+        System.out.printf("%,8.1f ns/get, hit rate %.3f%n", (double) nanos / calls, cache.stats().hitRate());
+    }
+}
@@ -3,8 +3,14 @@ package org.comroid.test.util;
 import org.comroid.api.data.seri.adp.JSON;
 import org.intellij.lang.annotations.Language;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
 public class JsonTest {
     public static final                   String[] Names    = new String[]{ "Logan_Mcclain", "Ayers_Rowe", "Lorene_William" };
     public static final @Language("json") String   TestData = """
@@ -46,4 +52,120 @@ public class JsonTest {
         Assert.assertEquals("toString mismatch", testString, arr.toString());
          */
     }
+
+    @Test
+    public void testScalars() {
+        @Language("json") var data = """
+                {"int": -42, "long": 12345678901, "double": 3.25, "exp": -1.5e-3, "big": 1E300,
+                 "true": true, "false": false, "null": null, "text": "a \\"b\\" \\u00e4\\n", "utf8": "äöü €"}
+                """;
+        var obj = JSON.Parser.parse(data).asObject();
+
+        Assertions.assertEquals(-42, obj.get("int").asValue().getValue());
+        Assertions.assertEquals(12345678901L, obj.get("long").asValue().getValue());
+        Assertions.assertEquals(3.25, obj.get("double").asValue().getValue());
+        Assertions.assertEquals(-1.5e-3, obj.get("exp").asValue().getValue());
+        Assertions.assertEquals(1e300, obj.get("big").asValue().getValue());
+        Assertions.assertEquals(true, obj.get("true").asValue().getValue());
+        Assertions.assertEquals(false, obj.get("false").asValue().getValue());
+        Assertions.assertTrue(obj.get("null").isNull());
+        Assertions.assertEquals("a \"b\" ä\n", obj.get("text").asString());
+        Assertions.assertEquals("äöü €", obj.get("utf8").asString());
+    }
+
+    @Test
+    public void testInputs() throws Exception {
+        var bytes = TestData.getBytes(StandardCharsets.UTF_8);
+
+        assertTestData(JSON.Parser.parse(bytes));
+        assertTestData(JSON.Parser.parse(ByteBuffer.wrap(bytes)));
+        var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        assertTestData(JSON.Parser.parse(direct));
+        // force the window to refill in the middle of tokens
+        try (var reader = new JSON.Deserializer(new TrickleInputStream(bytes))) {
+            assertTestData(reader.readNode());
+        }
+    }
+
+    @Test
+    public void testWriter() throws Exception {
+        var obj = new JSON.Object();
+        obj.set("text", "quote \" backslash \\ tab \t ctl \u0001 äöü 😀");
+        obj.set("number", 1.5);
+        var arr = new JSON.Array();
+        arr.append(1);
+        arr.append(true);
+        arr.append(null);
+        obj.put("array", arr);
+
+        var str = obj.toSerializedString();
+        Assertions.assertTrue(str.contains("\"quote \\\" backslash \\\\ tab \\t ctl \\u0001 äöü 😀\""), str);
+        Assertions.assertTrue(str.contains("\"array\": [1, true, null]"), str);
+
+        var parsed = JSON.Parser.parse(str).asObject();
+        Assertions.assertEquals(obj.get("text").asString(), parsed.get("text").asString());
+        Assertions.assertEquals(1.5, parsed.get("number").asDouble());
+
+        var big = JSON.Parser.parse(generate(1 << 16));
+        var expected = big.toSerializedString().getBytes(StandardCharsets.UTF_8);
+        try (var in = JSON.Writer.stream(big)) {
+            Assertions.assertArrayEquals(expected, in.readAllBytes(), "streamed output differs");
+        }
+        var buffer = ByteBuffer.allocate(expected.length);
+        JSON.Writer.write(big, buffer);
+        Assertions.assertArrayEquals(expected, buffer.array(), "buffered output differs");
+    }
+
+    @Test
+    @Tag("benchmark")
+    public void benchmarkParse() {
+        for (var size : new int[]{ 1 << 10, 1 << 16, 1 << 22 }) {
+            var json  = generate(size).getBytes(StandardCharsets.UTF_8);
+            var runs  = Math.max(1, (1 << 24) / json.length);
+            var start = System.nanoTime();
+            for (var i = 0; i < runs; i++)
+                JSON.Parser.parse(json);
+            var nanos = System.nanoTime() - start;
+
+            System.out.printf("%,10d bytes: %,8.1f MB/s%n", json.length, (double) json.length * runs / nanos * 1e3);
+        }
+    }
+
+    private static void assertTestData(JSON.Node node) {
+        var arr = node.asArray();
+        Assertions.assertEquals(3, arr.size(), "3 elements expected");
+        for (var i = 0; i < 3; i++)
+            Assertions.assertEquals(Names[i], arr.get(i).asObject().get("name").asString(), "Name mismatch at element " + i);
+    }
+
+    private static String generate(int size) {
+        var sb = new StringBuilder("[");
+        for (var i = 0; sb.length() < size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":").append(i)
+                    .append(",\"name\":\"").append(Names[i % Names.length])
+                    .append("\",\"score\":").append(i * 0.25)
+                    .append(",\"active\":").append(i % 2 == 0)
+                    .append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static final class TrickleInputStream extends InputStream {
+        private final ByteArrayInputStream data;
+
+        private TrickleInputStream(byte[] data) {
+            this.data = new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public int read() {
+            return data.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return data.read(b, off, Math.min(len, 3));
+        }
+    }
 }